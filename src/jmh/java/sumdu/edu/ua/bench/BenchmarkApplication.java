@@ -0,0 +1,48 @@
+package sumdu.edu.ua.bench;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import sumdu.edu.ua.AppInit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Starts the application against a private in-memory H2 database migrated by Flyway,
+ * with request tracing and console logging turned down so they do not skew results.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, context -> {
+        });
+    }
+
+    /**
+     * @param initializer called before the context is refreshed, e.g. to register extra singletons
+     * @param extraArgs additional {@code --name=value} properties
+     */
+    static ConfigurableApplicationContext start(String databaseName,
+                                                Consumer<ConfigurableApplicationContext> initializer,
+                                                String... extraArgs) {
+        // DevTools reads this before any property source; its restart would re-run the caller's main method
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Command line arguments, because default properties lose to application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--app.tracing.sample-rate=0",
+                "--app.instrumentation.sql.slow-threshold=10s"));
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(AppInit.class)
+                .initializers(initializer::accept)
+                .run(args.toArray(new String[0]));
+    }
+}
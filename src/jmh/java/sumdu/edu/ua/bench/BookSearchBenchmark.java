@@ -0,0 +1,74 @@
+package sumdu.edu.ua.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code CatalogRepositoryPort.search} (first page of 20) by catalog size, query and sort.
+ * The query cache is off here, otherwise every invocation after the first would be a cache hit; each search
+ * runs its SQL. Run with {@code -prof gc} to see allocation per search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BookSearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int books;
+
+    /** Empty: no filter; "java": about 5% of titles; "zzz": no match. */
+    @Param({"", "java", "zzz"})
+    public String q;
+
+    @Param({"none", "title", "year_desc"})
+    public String sort;
+
+    private ConfigurableApplicationContext context;
+    private CatalogRepositoryPort catalog;
+    private PageRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start("search" + books, ctx -> {
+        }, "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        new CatalogDataGenerator(42).insertBooks(context.getBean(DataSource.class), books);
+        catalog = context.getBean(CatalogRepositoryPort.class);
+        request = switch (sort) {
+            case "title" -> new PageRequest(0, 20, "title", false);
+            case "year_desc" -> new PageRequest(0, 20, "year", true);
+            default -> new PageRequest(0, 20);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Book> search() {
+        return catalog.search(q, request);
+    }
+}
@@ -0,0 +1,68 @@
+package sumdu.edu.ua.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import sumdu.edu.ua.persistence.entity.BookEntity;
+import sumdu.edu.ua.persistence.repository.BookRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Books inserted per second through JPA when 1000 are saved in one transaction, with JDBC batching off
+ * ({@code batchSize=0}, one statement per row as with the former identity ids) and on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BulkInsertBenchmark.ROWS)
+public class BulkInsertBenchmark {
+
+    static final int ROWS = 1000;
+
+    @Param({"0", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository books;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("insert" + batchSize, ctx -> {
+        }, "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        books = context.getBean(BookRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookEntity> saveAll() {
+        List<BookEntity> batch = new ArrayList<>(ROWS);
+        int prefix = round++;
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new BookEntity("Bulk " + prefix + "-" + i, "Author " + (i % 100), 1900 + i % 120));
+        }
+        return books.saveAll(batch);
+    }
+}
@@ -0,0 +1,234 @@
+package sumdu.edu.ua.bench;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeds books, users and comments with deterministic pseudo-random data through JDBC batches.
+ * About one title in {@value #TITLE_NOUNS_COUNT} contains "Java", so {@code q=java} matches a fixed share of the catalog.
+ * Generated users share the password {@value #READER_PASSWORD}.
+ *
+ * Rows take their ids from the id sequences in blocks, as Hibernate does, so seeded ids are dense: on a fresh
+ * database the books are numbered 1..N, which {@link LoadDriver} relies on. A plain insert without an id would
+ * take a whole block per row.
+ */
+final class CatalogDataGenerator {
+
+    static final String READER_PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1000;
+    /** {@code INCREMENT BY} of the id sequences, see {@code V6__id_sequences.sql}. */
+    private static final int ID_BLOCK = 50;
+    /** Hashed once: BCrypt per user would dominate seeding time. */
+    private static final String READER_PASSWORD_HASH = new BCryptPasswordEncoder().encode(READER_PASSWORD);
+    private static final String[] ADJECTIVES = {
+            "Silent", "Practical", "Modern", "Effective", "Hidden", "Lost", "Clean", "Concurrent", "Last", "Bright"};
+    static final String[] NOUNS = {
+            "River", "Java", "Garden", "Algorithms", "Empire", "Patterns", "Kingdom", "Systems", "Winter", "Code",
+            "Ocean", "Machine", "Letters", "Design", "Forest", "Storm", "Island", "Archive", "Bridge", "Engine"};
+    private static final int TITLE_NOUNS_COUNT = 20;
+    private static final String[] FIRST_NAMES = {
+            "Olena", "Taras", "Ivan", "Maria", "Andrii", "Sofia", "Petro", "Iryna", "Robert", "Joshua"};
+    static final String[] LAST_NAMES = {
+            "Shevchenko", "Franko", "Kostenko", "Martin", "Bloch", "Goetz", "Fowler", "Beck", "Evans", "Knuth"};
+
+    private final Random random;
+
+    CatalogDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Inserts books with titles like "Practical Java 1234".
+     */
+    void insertBooks(DataSource dataSource, int count) throws SQLException {
+        Instant now = Instant.now();
+        try (Connection connection = dataSource.getConnection();
+             SequenceIds ids = new SequenceIds(connection, "books_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO books (id, title, author, pub_year, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, ids.next());
+                insert.setString(2, pick(ADJECTIVES) + " " + pick(NOUNS) + " " + i);
+                insert.setString(3, pick(FIRST_NAMES) + " " + pick(LAST_NAMES));
+                insert.setInt(4, 1900 + random.nextInt(125));
+                insert.setTimestamp(5, Timestamp.from(now.minus(random.nextInt(3650), ChronoUnit.DAYS)));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Inserts enabled users {@code reader0@example.com}, {@code reader1@example.com}, ...
+     */
+    void insertUsers(DataSource dataSource, int count) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             SequenceIds ids = new SequenceIds(connection, "users_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (id, email, password, role, enabled) VALUES (?, ?, ?, 'USER', TRUE)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, ids.next());
+                insert.setString(2, readerEmail(i));
+                insert.setString(3, READER_PASSWORD_HASH);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Inserts comments on one book from the given number of generated users.
+     */
+    void insertComments(DataSource dataSource, long bookId, int count, int users) throws SQLException {
+        Instant now = Instant.now();
+        try (Connection connection = dataSource.getConnection();
+             SequenceIds ids = new SequenceIds(connection, "comments_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO comments (id, book_id, user_id, text, created_at) " +
+                     "VALUES (?, ?, (SELECT id FROM users WHERE email = ?), ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, ids.next());
+                insert.setLong(2, bookId);
+                insert.setString(3, readerEmail(random.nextInt(users)));
+                insert.setString(4, "Comment " + i + " about " + pick(NOUNS).toLowerCase());
+                insert.setTimestamp(5, Timestamp.from(now.minus(random.nextInt(100_000), ChronoUnit.MINUTES)));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Inserts comments on existing books and generated users. Books get Zipf-distributed comment counts
+     * (a few very popular books, a long tail with none); the popular books are spread over the id range.
+     * Active users are Zipf-distributed as well.
+     *
+     * @param exponent Zipf exponent, around 1 for realistic popularity
+     */
+    void insertZipfComments(DataSource dataSource, long count, double exponent) throws SQLException {
+        long[] bookIds = ids(dataSource, "SELECT id FROM books ORDER BY id");
+        long[] userIds = ids(dataSource, "SELECT id FROM users WHERE email LIKE 'reader%' ORDER BY id");
+        if (bookIds.length == 0 || userIds.length == 0) {
+            throw new IllegalStateException("Insert books and users before comments");
+        }
+        shuffle(bookIds);
+        shuffle(userIds);
+        ZipfDistribution bookPopularity = new ZipfDistribution(bookIds.length, exponent);
+        ZipfDistribution userActivity = new ZipfDistribution(userIds.length, exponent);
+
+        Instant now = Instant.now();
+        try (Connection connection = dataSource.getConnection();
+             SequenceIds ids = new SequenceIds(connection, "comments_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO comments (id, book_id, user_id, text, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (long i = 0; i < count; i++) {
+                insert.setLong(1, ids.next());
+                insert.setLong(2, bookIds[bookPopularity.sample(random)]);
+                insert.setLong(3, userIds[userActivity.sample(random)]);
+                insert.setString(4, "Comment " + i + " about " + pick(NOUNS).toLowerCase());
+                insert.setTimestamp(5, Timestamp.from(now.minus(random.nextInt(500_000), ChronoUnit.MINUTES)));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static long[] ids(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            long[] ids = new long[1024];
+            int size = 0;
+            while (rows.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = rows.getLong(1);
+            }
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    private void shuffle(long[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    static String readerEmail(int index) {
+        return "reader" + index + "@example.com";
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Ids of a sequence, one block of {@value #ID_BLOCK} per {@code NEXT VALUE FOR}, like Hibernate's
+     * pooled-lo optimizer: the value read is the first id of the block.
+     */
+    private static final class SequenceIds implements AutoCloseable {
+        private final PreparedStatement nextBlock;
+        private long next;
+        private long end;
+
+        SequenceIds(Connection connection, String sequence) throws SQLException {
+            this.nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR " + sequence);
+        }
+
+        long next() throws SQLException {
+            if (next == end) {
+                try (ResultSet rows = nextBlock.executeQuery()) {
+                    rows.next();
+                    next = rows.getLong(1);
+                    end = next + ID_BLOCK;
+                }
+            }
+            return next++;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            nextBlock.close();
+        }
+    }
+}
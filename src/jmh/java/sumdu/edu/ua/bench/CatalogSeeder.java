@@ -0,0 +1,70 @@
+package sumdu.edu.ua.bench;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates a load-test database: applies the Flyway migrations and seeds books, users and
+ * Zipf-distributed comments through JDBC batches.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec@seed -Dload.args="--url=jdbc:h2:file:./data/load --books=1000000 --users=100000 --comments=5000000"
+ * </pre>
+ */
+public final class CatalogSeeder {
+
+    private CatalogSeeder() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String url = options.getOrDefault("url", "jdbc:h2:file:./data/load");
+        int books = Integer.parseInt(options.getOrDefault("books", "100000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        long comments = Long.parseLong(options.getOrDefault("comments", "500000"));
+        double exponent = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, "sa", "", true);
+        try {
+            Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+            CatalogDataGenerator generator = new CatalogDataGenerator(seed);
+            long start = System.nanoTime();
+            generator.insertBooks(dataSource, books);
+            log("books", books, start);
+
+            start = System.nanoTime();
+            generator.insertUsers(dataSource, users);
+            log("users", users, start);
+
+            start = System.nanoTime();
+            generator.insertZipfComments(dataSource, comments, exponent);
+            log("comments", comments, start);
+        } finally {
+            dataSource.destroy();
+        }
+        System.out.printf("Seeded %s. Log in as %s / %s%n",
+                url, CatalogDataGenerator.readerEmail(0), CatalogDataGenerator.READER_PASSWORD);
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static void log(String what, long count, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("Inserted %,d %s in %.1f s (%,.0f rows/s)%n", count, what, seconds, count / seconds);
+    }
+}
@@ -0,0 +1,107 @@
+package sumdu.edu.ua.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import sumdu.edu.ua.core.domain.Comment;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.exception.InvalidCommentTextException;
+import sumdu.edu.ua.core.port.CommentRepositoryPort;
+import sumdu.edu.ua.core.service.CommentService;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comment hot paths: text validation on every post, and the page query behind {@code /books/{bookId}}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Validation {
+
+        /** clean: short valid text; long: 1000 valid chars; forbidden: forbidden word near the end. */
+        @Param({"clean", "long", "forbidden"})
+        public String text;
+
+        CommentService service;
+        String value;
+
+        @Setup
+        public void setUp() {
+            service = new CommentService(null, null, null);
+            String filler = "A thoughtful remark about the plot and characters. ";
+            value = switch (text) {
+                case "long" -> filler.repeat(20).substring(0, 1000);
+                case "forbidden" -> filler.repeat(5) + "visit my casino";
+                default -> "Great book, recommended!";
+            };
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Listing {
+
+        @Param({"100", "10000"})
+        public int comments;
+
+        /** Empty: no author filter; otherwise a substring of one generated reader's email. */
+        @Param({"", "reader7@"})
+        public String author;
+
+        ConfigurableApplicationContext context;
+        CommentRepositoryPort repository;
+        long bookId;
+        PageRequest request = new PageRequest(0, 20);
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            context = BenchmarkApplication.start("comments" + comments);
+            DataSource dataSource = context.getBean(DataSource.class);
+            CatalogDataGenerator generator = new CatalogDataGenerator(42);
+            generator.insertBooks(dataSource, 1000);
+            generator.insertUsers(dataSource, 100);
+            bookId = 1;
+            generator.insertComments(dataSource, bookId, comments, 100);
+            repository = context.getBean(CommentRepositoryPort.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public void validateCommentText(Validation state, Blackhole blackhole) {
+        try {
+            state.service.validateCommentText(state.value);
+            blackhole.consume(true);
+        } catch (InvalidCommentTextException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public Page<Comment> list(Listing state) {
+        return state.repository.list(state.bookId, state.author.isEmpty() ? null : state.author, null, state.request);
+    }
+}
@@ -0,0 +1,65 @@
+package sumdu.edu.ua.bench;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import sumdu.edu.ua.config.EmailFreemarkerConfig;
+import sumdu.edu.ua.web.service.EmailTemplateProcessor;
+import sumdu.edu.ua.web.service.NewBookEmailModel;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages rendered per second by {@link EmailTemplateProcessor} compared with
+ * the previous lookup-per-send, {@link StringWriter} and {@link HashMap} approach.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateBenchmark {
+
+    private Configuration cfg;
+    private EmailTemplateProcessor processor;
+
+    @Setup
+    public void setUp() {
+        cfg = new EmailFreemarkerConfig().freemarkerEmailConfig();
+        processor = new EmailTemplateProcessor(cfg);
+    }
+
+    @Benchmark
+    public String preparedTypedModel() {
+        return processor.process(new NewBookEmailModel("Clean Code", "Robert Martin", 2008, "2025-01-01 12:00"));
+    }
+
+    @Benchmark
+    public String lookupPerSendMapModel() throws Exception {
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", "Clean Code");
+        model.put("author", "Robert Martin");
+        model.put("year", 2008);
+        model.put("added", "2025-01-01 12:00");
+
+        Template template = cfg.getTemplate("new_book.ftl");
+        StringWriter writer = new StringWriter();
+        template.process(model, writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package sumdu.edu.ua.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sumdu.edu.ua.config.AppConfig;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.Comment;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.web.http.BookWithCommentsResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the two largest API responses with the application's {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int items;
+
+    private ObjectMapper mapper;
+    private Page<Book> page;
+    private BookWithCommentsResponse bookWithComments;
+
+    @Setup
+    public void setUp() {
+        mapper = new AppConfig().objectMapper();
+        List<Book> books = new ArrayList<>(items);
+        List<Comment> comments = new ArrayList<>(items);
+        Instant now = Instant.now();
+        for (int i = 0; i < items; i++) {
+            books.add(new Book(i + 1, "Practical Java " + i, "Joshua Bloch", 2001 + i % 20));
+            comments.add(new Comment(i + 1, 1, i % 10 + 1, "Practical Java 0",
+                    CatalogDataGenerator.readerEmail(i % 10), "Comment " + i + " about the book", now));
+        }
+        page = new Page<>(books, new PageRequest(0, items), 1000);
+        bookWithComments = new BookWithCommentsResponse(books.get(0), comments);
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] bookWithComments() throws Exception {
+        return mapper.writeValueAsBytes(bookWithComments);
+    }
+}
@@ -0,0 +1,358 @@
+package sumdu.edu.ua.bench;
+
+import sumdu.edu.ua.web.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP load driver for a running instance, with a weighted mix of catalog scenarios.
+ *
+ * <ul>
+ *   <li>{@code --model=open}: requests start at a fixed rate ({@code --rate} per second) regardless of
+ *   responses, as real users arrive.</li>
+ *   <li>{@code --model=closed}: {@code --concurrency} users each send a request, wait for the response and
+ *   send the next one; with {@code --pace} each user aims for one request per pace interval.</li>
+ * </ul>
+ *
+ * Response time is measured from the <em>intended</em> start of each request (its slot in the schedule),
+ * so a stalled server is charged for the requests it delayed instead of hiding them (coordinated omission).
+ * Service time, measured from the actual send, is reported alongside. A closed model without pace has no
+ * schedule, so both are the same there.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec@load -Dload.args="--model=open --rate=200 --duration=PT60S"
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern TOTAL = Pattern.compile("\"total\"\\s*:\\s*(\\d+)");
+
+    /** Weighted scenarios of the mix. */
+    enum Scenario {
+        SEARCH("GET /api/books"),
+        BOOK_JSON("GET /api/books/{id}"),
+        BOOK_PAGE("GET /books/{bookId}"),
+        COMMENT("POST /comments");
+
+        final String label;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final String user;
+    private final Scenario[] mix;
+    private final ZipfDistribution bookPopularity;
+    private final ZipfDistribution termPopularity;
+    private final String[] searchTerms;
+    private final Map<Scenario, Stats> stats = new EnumMap<>(Scenario.class);
+    private volatile long measureFromNanos;
+
+    LoadDriver(String baseUrl, HttpClient client, String user, Scenario[] mix, int books, double exponent) {
+        this.baseUrl = baseUrl;
+        this.client = client;
+        this.user = user;
+        this.mix = mix;
+        this.bookPopularity = new ZipfDistribution(books, exponent);
+        List<String> terms = new ArrayList<>(List.of(CatalogDataGenerator.NOUNS));
+        terms.addAll(List.of(CatalogDataGenerator.LAST_NAMES));
+        terms.add("no-such-book");
+        this.searchTerms = terms.toArray(new String[0]);
+        this.termPopularity = new ZipfDistribution(searchTerms.length, exponent);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CatalogSeeder.parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        String model = options.getOrDefault("model", "closed");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        Duration pace = Duration.parse(options.getOrDefault("pace", "PT0S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        String user = options.getOrDefault("user", CatalogDataGenerator.readerEmail(0));
+        String password = options.getOrDefault("password", CatalogDataGenerator.READER_PASSWORD);
+        Scenario[] mix = parseMix(options.getOrDefault("mix", "search=40,book_json=25,book_page=25,comment=10"));
+        double exponent = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+
+        ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        try {
+            login(client, baseUrl, user, password);
+            int books = countBooks(client, baseUrl);
+            LoadDriver driver = new LoadDriver(baseUrl, client, user, mix, books, exponent);
+            System.out.printf("%s model against %s (%,d books), warmup %s, measure %s%n",
+                    model, baseUrl, books, warmup, duration);
+
+            long measuredNanos = model.equals("open")
+                    ? driver.runOpen(rate, warmup, duration, concurrency * 64)
+                    : driver.runClosed(concurrency, pace, warmup, duration);
+            driver.report(measuredNanos, model.equals("open") || !pace.isZero());
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Closed model: each user thread follows its own schedule of one request per {@code pace}.
+     *
+     * @return measured duration in nanoseconds
+     */
+    long runClosed(int users, Duration pace, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        long end = measureFromNanos + duration.toNanos();
+        long paceNanos = pace.toNanos();
+
+        List<Thread> threads = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            SplittableRandom random = new SplittableRandom(u);
+            Thread thread = Thread.ofVirtual().name("load-user-" + u).unstarted(() -> {
+                long intended = System.nanoTime();
+                while (intended < end) {
+                    long now = System.nanoTime();
+                    if (now < intended) {
+                        LockSupport.parkNanos(intended - now);
+                    }
+                    long sent = paceNanos > 0 ? Math.max(intended, System.nanoTime()) : System.nanoTime();
+                    Scenario scenario = mix[random.nextInt(mix.length)];
+                    HttpRequest request = request(scenario, random);
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    long done = System.nanoTime();
+                    long scheduled = paceNanos > 0 ? intended : sent;
+                    record(scenario, scheduled, sent, done, status);
+                    intended = paceNanos > 0 ? intended + paceNanos : done;
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Math.min(System.nanoTime(), end) - measureFromNanos;
+    }
+
+    /**
+     * Open model: requests are started on a fixed schedule whatever the server does.
+     * When more than {@code maxInFlight} requests are outstanding, new ones are counted as dropped.
+     *
+     * @return measured duration in nanoseconds
+     */
+    long runOpen(double rate, Duration warmup, Duration duration, int maxInFlight) {
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        long end = measureFromNanos + duration.toNanos();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(7);
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (now < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Scenario scenario = mix[random.nextInt(mix.length)];
+            if (!inFlight.tryAcquire()) {
+                if (intended >= measureFromNanos) {
+                    stats.get(scenario).dropped.increment();
+                }
+                continue;
+            }
+            long sent = System.nanoTime();
+            CompletableFuture<?> future = client.sendAsync(request(scenario, random), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        inFlight.release();
+                        record(scenario, intended, sent, System.nanoTime(), error == null ? response.statusCode() : -1);
+                        return null;
+                    });
+            pending.add(future);
+            if (pending.size() > 10_000) {
+                pending.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        return end - measureFromNanos;
+    }
+
+    private HttpRequest request(Scenario scenario, SplittableRandom random) {
+        long bookId = bookId(random);
+        return switch (scenario) {
+            case SEARCH -> get("/api/books?size=20&q="
+                    + URLEncoder.encode(searchTerms[termPopularity.sample(random)], StandardCharsets.UTF_8));
+            case BOOK_JSON -> get("/api/books/" + bookId);
+            case BOOK_PAGE -> get("/books/" + bookId);
+            case COMMENT -> HttpRequest.newBuilder(URI.create(baseUrl + "/comments"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"bookId\":" + bookId + ",\"author\":\"" + user + "\",\"text\":\"Load test comment\"}"))
+                    .build();
+        };
+    }
+
+    /**
+     * Popular books are spread over the id range by a fixed multiplicative permutation of Zipf ranks.
+     * Assumes the ids 1..N of a database seeded by {@link CatalogSeeder}; books added later leave gaps,
+     * which show up as 404s.
+     */
+    private long bookId(SplittableRandom random) {
+        int books = bookPopularity.size();
+        long rank = bookPopularity.sample(random);
+        return 1 + (rank * 2_654_435_761L) % books;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private void record(Scenario scenario, long intended, long sent, long done, int status) {
+        if (intended < measureFromNanos) {
+            return;
+        }
+        Stats s = stats.get(scenario);
+        s.responseTime.record(done - intended);
+        s.serviceTime.record(done - sent);
+        if (status < 200 || status >= 400) {
+            s.errors.increment();
+        }
+    }
+
+    private void report(long measuredNanos, boolean scheduled) {
+        double seconds = measuredNanos / 1e9;
+        System.out.printf("%n%-22s %9s %7s %7s %9s | %9s %9s %9s %9s %9s | %9s %9s%n",
+                "Scenario", "Requests", "Errors", "Dropped", "Req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p50", "svc p99");
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Scenario, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            LatencyHistogram.Snapshot response = s.responseTime.snapshot();
+            LatencyHistogram.Snapshot service = s.serviceTime.snapshot();
+            if (response.getCount() == 0 && s.dropped.sum() == 0) {
+                continue;
+            }
+            totalRequests += response.getCount();
+            totalErrors += s.errors.sum();
+            printRow(entry.getKey().label, response, service, s.errors.sum(), s.dropped.sum(), seconds);
+        }
+        System.out.printf("%nTotal: %,d requests, %,d errors, %.1f req/s over %.1f s%n",
+                totalRequests, totalErrors, totalRequests / seconds, seconds);
+        if (!scheduled) {
+            System.out.println("Closed model without --pace: response time equals service time "
+                    + "(no schedule to correct coordinated omission against).");
+        }
+    }
+
+    private static void printRow(String label, LatencyHistogram.Snapshot response, LatencyHistogram.Snapshot service,
+                                 long errors, long dropped, double seconds) {
+        System.out.printf("%-22s %9d %7d %7d %9.1f | %9.2f %9.2f %9.2f %9.2f %9.2f | %9.2f %9.2f%n",
+                label, response.getCount(), errors, dropped, response.getCount() / seconds,
+                millis(response.valueAtPercentile(50)), millis(response.valueAtPercentile(90)),
+                millis(response.valueAtPercentile(99)), millis(response.valueAtPercentile(99.9)),
+                millis(response.getMaxNanos()),
+                millis(service.valueAtPercentile(50)), millis(service.valueAtPercentile(99)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    static Scenario[] parseMix(String mix) {
+        List<Scenario> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split("=");
+            Scenario scenario = Scenario.valueOf(kv[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(kv[1].trim()); i > 0; i--) {
+                weighted.add(scenario);
+            }
+        }
+        return weighted.toArray(new Scenario[0]);
+    }
+
+    private static void login(HttpClient client, String baseUrl, String user, String password)
+            throws IOException, InterruptedException {
+        String page = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF.matcher(page);
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token on the login page");
+        }
+        String form = "email=" + URLEncoder.encode(user, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("Login failed for " + user + ": " + response.statusCode() + " " + location);
+        }
+    }
+
+    private static int countBooks(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        String body = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books?size=1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher total = TOTAL.matcher(body);
+        if (!total.find()) {
+            throw new IllegalStateException("Unexpected /api/books response: " + body);
+        }
+        return Math.max(1, Integer.parseInt(total.group(1)));
+    }
+
+    private static final class Stats {
+        final LatencyHistogram responseTime = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,60 @@
+package sumdu.edu.ua.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import sumdu.edu.ua.web.limit.RateLimitRule;
+import sumdu.edu.ua.web.limit.TokenBucketRateLimiter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenBucketRateLimiter} under 64 threads: all on one hot key (CAS contention on a single bucket),
+ * spread over many keys, and over more keys than {@code maxKeys} (eviction on insert).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000", "2000000"})
+    public int keys;
+
+    private TokenBucketRateLimiter limiter;
+    private RateLimitRule rule;
+    private String[] keyNames;
+
+    @Setup
+    public void setUp() {
+        limiter = new TokenBucketRateLimiter(1_000_000);
+        // high enough that most requests are allowed and every call advances the bucket
+        rule = new RateLimitRule(60_000_000, 1_000);
+        keyNames = new String[Math.min(keys, 100_000)];
+        for (int i = 0; i < keyNames.length; i++) {
+            keyNames[i] = "POST /comments|user:reader" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public boolean tryConsume() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String key = keys <= keyNames.length
+                ? keyNames[random.nextInt(keyNames.length)]
+                : "POST /comments|ip:10." + random.nextInt(keys);
+        return limiter.tryConsume(key, rule).allowed();
+    }
+}
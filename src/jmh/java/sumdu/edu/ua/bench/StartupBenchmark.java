@@ -0,0 +1,222 @@
+package sumdu.edu.ua.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time to ready and resident memory of the application started from the jar built with {@code -Pstartup}
+ * or the executable built with {@code -Pnative}.
+ *
+ * Each mode starts a fresh JVM on an in-memory database and a random port. Time to ready runs from
+ * process start to the first successful {@code /actuator/health} response; RSS is read from
+ * {@code /proc} at that moment (Linux only). Modes:
+ * <ul>
+ *   <li>{@code plain}: the thin jar as is</li>
+ *   <li>{@code cds}: with the AppCDS archive of the training run</li>
+ *   <li>{@code aot}: with the Spring AOT bean definitions</li>
+ *   <li>{@code cds-aot}: both</li>
+ *   <li>{@code native}: the GraalVM executable</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pstartup package -DskipTests
+ * mvn -Pbenchmarks test-compile exec:exec@startup -Dstartup.args="--runs=10"
+ *
+ * mvn -Pnative native:compile -DskipTests
+ * mvn -Pbenchmarks test-compile exec:exec@startup -Dstartup.args="--modes=cds-aot,native"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern PORT = Pattern.compile("Tomcat started on port\\D*(\\d+)");
+    private static final Pattern STARTED = Pattern.compile("Started AppInit in ([\\d.]+) seconds");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Path jar;
+    private final Path archive;
+    private final Path executable;
+    private final List<String> jvmArgs;
+    private final Duration timeout;
+
+    StartupBenchmark(Path jar, Path archive, Path executable, List<String> jvmArgs, Duration timeout) {
+        this.jar = jar;
+        this.archive = archive;
+        this.executable = executable;
+        this.jvmArgs = jvmArgs;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CatalogSeeder.parseOptions(args);
+        Path jar = Path.of(options.getOrDefault("jar", "target/spring-boot-books-app-1.0.0-SNAPSHOT.jar"));
+        Path archive = Path.of(options.getOrDefault("archive", "target/app.jsa"));
+        Path executable = Path.of(options.getOrDefault("native", "target/spring-boot-books-app"));
+        List<String> modes = List.of(options.getOrDefault("modes", "plain,cds,aot,cds-aot").split(","));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int warmupRuns = Integer.parseInt(options.getOrDefault("warmup-runs", "1"));
+        String jvmArgs = options.getOrDefault("jvm-args", "").trim();
+        Duration timeout = Duration.parse(options.getOrDefault("timeout", "PT120S"));
+
+        if (!Files.isRegularFile(jar) && !modes.equals(List.of("native"))) {
+            System.err.println("No " + jar + ", build it first with: mvn -Pstartup package -DskipTests");
+            System.exit(2);
+        }
+        StartupBenchmark benchmark = new StartupBenchmark(jar, archive, executable,
+                jvmArgs.isEmpty() ? List.of() : List.of(jvmArgs.split("\\s+")), timeout);
+
+        System.out.printf("%-8s %5s %14s %14s %14s %16s %10s%n",
+                "Mode", "Runs", "Ready ms p50", "Ready ms min", "Ready ms max", "Spring s p50", "RSS MB p50");
+        for (String mode : modes) {
+            for (int i = 0; i < warmupRuns; i++) {
+                benchmark.start(mode);
+            }
+            List<Run> results = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                results.add(benchmark.start(mode));
+            }
+            long[] ready = results.stream().mapToLong(Run::readyMillis).sorted().toArray();
+            double[] spring = results.stream().mapToDouble(Run::springSeconds).sorted().toArray();
+            long[] rss = results.stream().mapToLong(Run::rssKb).sorted().toArray();
+            System.out.printf("%-8s %5d %14d %14d %14d %16.2f %10s%n", mode, runs,
+                    ready[ready.length / 2], ready[0], ready[ready.length - 1], spring[spring.length / 2],
+                    rss[rss.length / 2] < 0 ? "n/a" : Long.toString(rss[rss.length / 2] / 1024));
+        }
+    }
+
+    /**
+     * Starts the application in the given mode, waits until it is ready and stops it.
+     */
+    Run start(String mode) throws Exception {
+        List<String> command = new ArrayList<>();
+        if (mode.equals("native")) {
+            if (!Files.isExecutable(executable)) {
+                throw new IllegalStateException("No native executable " + executable + ", build with -Pnative");
+            }
+            command.add(executable.toAbsolutePath().toString());
+        } else {
+            command.add(java);
+            command.addAll(jvmOptions(mode));
+            command.add("-jar");
+            command.add(jar.getFileName().toString());
+        }
+        command.addAll(Arrays.asList(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:startup",
+                "--app.tracing.export.file=",
+                "--app.tracing.export.endpoint="));
+
+        long startNanos = System.nanoTime();
+        // the class path recorded in the archive is the one of the training run, relative to the jar directory
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .start();
+        CompletableFuture<Integer> port = new CompletableFuture<>();
+        CompletableFuture<Double> springSeconds = new CompletableFuture<>();
+        Thread reader = new Thread(() -> readOutput(process, port, springSeconds), "startup-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            long deadline = startNanos + timeout.toNanos();
+            int httpPort = port.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            URI health = URI.create("http://localhost:" + httpPort + "/actuator/health");
+            while (!isUp(health)) {
+                if (System.nanoTime() > deadline || !process.isAlive()) {
+                    throw new IllegalStateException(mode + ": not ready within " + timeout);
+                }
+                Thread.sleep(5);
+            }
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            long rssKb = rssKb(process.pid());
+            return new Run(readyMillis, springSeconds.getNow(Double.NaN), rssKb);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> jvmOptions(String mode) {
+        List<String> options = new ArrayList<>();
+        if (mode.contains("cds")) {
+            if (!Files.isRegularFile(archive)) {
+                throw new IllegalStateException("No CDS archive " + archive + ", build with -Pstartup");
+            }
+            // fail instead of silently starting without the archive when it does not match the jar
+            options.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+            options.add("-Xshare:on");
+        }
+        if (mode.contains("aot")) {
+            options.add("-Dspring.aot.enabled=true");
+        }
+        options.addAll(jvmArgs);
+        return options;
+    }
+
+    private boolean isUp(URI health) {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void readOutput(Process process, CompletableFuture<Integer> port,
+                                   CompletableFuture<Double> springSeconds) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = PORT.matcher(line);
+                if (!port.isDone() && matcher.find()) {
+                    port.complete(Integer.parseInt(matcher.group(1)));
+                }
+                matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    springSeconds.complete(Double.parseDouble(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            // process was stopped
+        }
+        port.completeExceptionally(new IllegalStateException("Application exited before Tomcat started"));
+    }
+
+    private static long rssKb(long pid) {
+        try {
+            Matcher matcher = VM_RSS.matcher(Files.readString(Path.of("/proc", Long.toString(pid), "status")));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    record Run(long readyMillis, double springSeconds, long rssKb) {
+    }
+}
@@ -0,0 +1,85 @@
+package sumdu.edu.ua.bench;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import sumdu.edu.ua.persistence.jdbc.StatementListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link LoadDriver} mix at 1k concurrent clients, with requests served by Tomcat's
+ * platform thread pool and by virtual threads.
+ *
+ * The in-memory database answers in microseconds, so {@code --jdbc-latency} adds a sleep after every
+ * statement, while the connection is held, to stand in for a database across the network; with it the
+ * request threads spend most of their time blocked, as they do in production.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec@virtual-threads -Dload.args="--clients=1000 --jdbc-latency=PT0.002S"
+ * </pre>
+ */
+public final class VirtualThreadBenchmark {
+
+    private VirtualThreadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CatalogSeeder.parseOptions(args);
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int books = Integer.parseInt(options.getOrDefault("books", "10000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        long comments = Long.parseLong(options.getOrDefault("comments", "100000"));
+        Duration jdbcLatency = Duration.parse(options.getOrDefault("jdbc-latency", "PT0.002S"));
+        String poolSize = options.getOrDefault("pool-size", "100");
+        String tomcatThreads = options.getOrDefault("tomcat-threads", "200");
+        String warmup = options.getOrDefault("warmup", "PT10S");
+        String duration = options.getOrDefault("duration", "PT30S");
+        String mix = options.getOrDefault("mix", "search=40,book_json=25,book_page=25,comment=10");
+
+        StatementListener latency = (sql, startNanos, durationNanos, failed) -> sleep(jdbcLatency);
+
+        for (String mode : modes) {
+            boolean virtual = mode.equals("virtual");
+            ConfigurableApplicationContext context = BenchmarkApplication.start("threads-" + mode,
+                    c -> c.getBeanFactory().registerSingleton("jdbcLatency", latency),
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.threads.max=" + tomcatThreads,
+                    "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+            try {
+                DataSource dataSource = context.getBean(DataSource.class);
+                CatalogDataGenerator generator = new CatalogDataGenerator(42);
+                generator.insertBooks(dataSource, books);
+                generator.insertUsers(dataSource, users);
+                generator.insertZipfComments(dataSource, comments, 1.0);
+
+                String port = context.getEnvironment().getProperty("local.server.port");
+                System.out.printf("%n=== %s threads, %d clients, JDBC latency %s, pool %s, Tomcat max threads %s ===%n",
+                        mode, clients, jdbcLatency, poolSize, virtual ? "n/a" : tomcatThreads);
+                LoadDriver.main(new String[]{
+                        "--base-url=http://localhost:" + port,
+                        "--model=closed",
+                        "--concurrency=" + clients,
+                        "--warmup=" + warmup,
+                        "--duration=" + duration,
+                        "--mix=" + mix});
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,10 +2,15 @@ package sumdu.edu.ua.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.concurrent.ForkJoinPool;
 
 @Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class AppConfig {
 
     /**
@@ -18,5 +23,14 @@ public class AppConfig {
         mapper.registerModule(new JavaTimeModule());
         return mapper;
     }
+
+    /**
+     * Pool validating the rows of book imports in parallel (BookImportService), kept apart from the
+     * common pool so imports do not slow down parallel streams elsewhere.
+     */
+    @Bean(name = "bookImportPool", destroyMethod = "shutdown")
+    public ForkJoinPool bookImportPool(@Value("${app.book-import.parallelism:4}") int parallelism) {
+        return new ForkJoinPool(Math.max(1, parallelism));
+    }
 }
 
@@ -4,26 +4,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import sumdu.edu.ua.persistence.entity.UserEntity;
 import sumdu.edu.ua.persistence.repository.UserRepository;
 
 /**
  * Initializes default users with proper BCrypt passwords on application startup.
+ * The admin password hash is precomputed, so a start never pays for a BCrypt encode.
  */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
 
+    /** BCrypt hash (strength 10, as {@code SecurityConfig#passwordEncoder}) of "admin". */
+    private static final String ADMIN_PASSWORD_HASH = "$2a$10$xf64IHKD4POqwUGqvGS0e.8MZbs4zULKpwOa7NT7y3BcU7ElsAUzS";
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
 
     @Autowired
-    public DataInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DataInitializer(UserRepository userRepository) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
     }
 
     @Override
@@ -31,9 +32,8 @@ public class DataInitializer implements CommandLineRunner {
         String adminEmail = "admin@example.com";
         
         // Create admin user if not exists
-        if (userRepository.findByEmail(adminEmail).isEmpty()) {
-            String adminPassword = passwordEncoder.encode("admin");
-            UserEntity admin = new UserEntity(adminEmail, adminPassword, "ADMIN", "Admin", "User");
+        if (!userRepository.existsByEmail(adminEmail)) {
+            UserEntity admin = new UserEntity(adminEmail, ADMIN_PASSWORD_HASH, "ADMIN", "Admin", "User");
             admin.setEnabled(true);
             userRepository.save(admin);
             log.info("Created admin user: {} with password: admin", adminEmail);
@@ -44,4 +44,3 @@ public class DataInitializer implements CommandLineRunner {
         log.info("Data initialization completed");
     }
 }
-
@@ -1,13 +1,16 @@
 package sumdu.edu.ua.config;
 
+import freemarker.core.HTMLOutputFormat;
 import freemarker.template.Configuration;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 
 @org.springframework.context.annotation.Configuration
 public class EmailFreemarkerConfig {
 
     @Bean
+    @Lazy
     @Qualifier("emailFreemarkerConfig")
     public Configuration freemarkerEmailConfig() {
         Configuration cfg = new Configuration(Configuration.VERSION_2_3_32);
@@ -17,6 +20,8 @@ public class EmailFreemarkerConfig {
                 "/mail-templates/"
         );
         cfg.setDefaultEncoding("UTF-8");
+        // titles and authors come from admins and imported files, so every ${...} is HTML-escaped
+        cfg.setOutputFormat(HTMLOutputFormat.INSTANCE);
         return cfg;
     }
 
@@ -0,0 +1,35 @@
+package sumdu.edu.ua.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import sumdu.edu.ua.persistence.jdbc.ReadYourWrites;
+import sumdu.edu.ua.persistence.jdbc.RequestStatementCounter;
+import sumdu.edu.ua.web.tracing.Tracer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class LookupConfig {
+
+    /**
+     * Executor for the concurrent reads of {@link sumdu.edu.ua.core.service.BookDetailsService}.
+     * Each running read holds a pool connection, so its size bounds the extra connections taken by
+     * fan-out; when all threads are busy the read runs on the request thread instead of queueing.
+     * Tasks run with the submitter's security context, trace span, SQL statement counter and read-your-writes pin.
+     */
+    @Bean(name = "lookupExecutor")
+    public ThreadPoolTaskExecutor lookupExecutor(@Value("${app.lookup.threads:8}") int threads, Tracer tracer) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("lookup-");
+        executor.setTaskDecorator(task -> new DelegatingSecurityContextRunnable(
+                tracer.wrap(RequestStatementCounter.propagate(ReadYourWrites.propagate(task)))));
+        return executor;
+    }
+}
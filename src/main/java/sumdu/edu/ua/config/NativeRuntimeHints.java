@@ -0,0 +1,78 @@
+package sumdu.edu.ua.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.core.port.CommentRepositoryPort;
+import sumdu.edu.ua.core.service.BookService;
+import sumdu.edu.ua.core.service.CommentService;
+import sumdu.edu.ua.persistence.entity.BookEntity;
+import sumdu.edu.ua.persistence.entity.CommentEntity;
+import sumdu.edu.ua.persistence.entity.NewBookSubscriptionEntity;
+import sumdu.edu.ua.persistence.entity.UserEntity;
+import sumdu.edu.ua.persistence.jdbc.RequestStatementCounter;
+import sumdu.edu.ua.web.aop.CommentServiceLoggingAspect;
+import sumdu.edu.ua.web.aop.JfrEventAspect;
+import sumdu.edu.ua.web.aop.ServiceMethodLoggingAspect;
+import sumdu.edu.ua.web.aop.TracingAspect;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Reflection, resource and proxy hints for the native image that Spring AOT cannot infer
+ * from bean definitions alone.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("db/migration/*.sql")
+                .registerPattern("mail-templates/*.ftl")
+                .registerPattern("templates/*.html")
+                .registerPattern("static/css/*.css")
+                .registerPattern("application.conf")
+                .registerPattern("messages*.properties")
+                .registerPattern("jfr/*.jfc");
+
+        for (Class<?> entity : new Class<?>[]{BookEntity.class, CommentEntity.class, UserEntity.class,
+                NewBookSubscriptionEntity.class}) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        // advice methods are invoked reflectively
+        for (Class<?> aspect : new Class<?>[]{CommentServiceLoggingAspect.class, JfrEventAspect.class,
+                ServiceMethodLoggingAspect.class, TracingAspect.class}) {
+            hints.reflection().registerType(aspect, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        // JfrEventAspect finds book id and query arguments by parameter name
+        for (Class<?> advised : new Class<?>[]{CatalogRepositoryPort.class, CommentRepositoryPort.class,
+                BookService.class, CommentService.class}) {
+            hints.reflection().registerType(advised, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+        }
+
+        // created by Hibernate from hibernate.javax.cache.provider
+        hints.reflection().registerTypeIfPresent(classLoader,
+                "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider", MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // created by Hibernate from hibernate.session_factory.statement_inspector
+        hints.reflection().registerType(RequestStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // TimedDataSource wraps JDBC objects in JDK proxies that call the wrapped object reflectively
+        for (Class<?> jdbcType : new Class<?>[]{Connection.class, Statement.class, PreparedStatement.class,
+                CallableStatement.class}) {
+            hints.reflection().registerType(jdbcType, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.proxies()
+                .registerJdkProxy(Connection.class)
+                .registerJdkProxy(Statement.class)
+                .registerJdkProxy(PreparedStatement.class)
+                .registerJdkProxy(CallableStatement.class);
+    }
+}
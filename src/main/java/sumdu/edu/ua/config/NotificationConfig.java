@@ -0,0 +1,28 @@
+package sumdu.edu.ua.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class NotificationConfig {
+
+    /**
+     * Executor for sending digest chunks.
+     * Its size is the maximum number of concurrent SMTP sends.
+     */
+    @Bean(name = "digestMailExecutor")
+    public ThreadPoolTaskExecutor digestMailExecutor(
+            @Value("${app.notifications.digest.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("digest-mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
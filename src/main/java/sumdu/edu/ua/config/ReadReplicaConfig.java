@@ -0,0 +1,89 @@
+package sumdu.edu.ua.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourcePoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import sumdu.edu.ua.persistence.jdbc.CacheRefillWindow;
+import sumdu.edu.ua.persistence.jdbc.DataSourcePools;
+import sumdu.edu.ua.persistence.jdbc.ReadWriteRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    /**
+     * A pool for the primary from {@code spring.datasource.*} and one per URL in {@code app.datasource.replicas},
+     * with the same credentials and {@code spring.datasource.hikari.*} settings. Every pool publishes
+     * {@code hikaricp.*} metrics and {@code jdbc.connections.*} tagged with its pool name, and is closed with
+     * the context.
+     */
+    @Bean
+    public DataSourcePools dataSourcePools(DataSourceProperties properties, Environment environment,
+                                           @Value("${app.datasource.replicas}") List<String> replicaUrls,
+                                           @Value("${app.datasource.replica-connection-timeout:PT2S}") Duration connectionTimeout,
+                                           ObjectProvider<MeterRegistry> registry,
+                                           ObjectProvider<DataSourcePoolMetadataProvider> metadataProviders) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, binder, properties.determineUrl());
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = pool(properties, binder, url.trim());
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        DataSourcePools pools = new DataSourcePools(primary, replicas);
+        registry.ifAvailable(meters -> {
+            List<DataSourcePoolMetadataProvider> providers = metadataProviders.orderedStream().toList();
+            List<HikariDataSource> all = new ArrayList<>(List.of(primary));
+            all.addAll(replicas);
+            for (HikariDataSource pool : all) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters));
+                new DataSourcePoolMetrics(pool, providers, pool.getPoolName(), Tags.empty()).bindTo(meters);
+            }
+        });
+        return pools;
+    }
+
+    /**
+     * Replaces the auto-configured DataSource with {@link ReadWriteRoutingDataSource} over the pools.
+     * The pools are not DataSource beans, so statements are timed once, on this DataSource.
+     */
+    @Bean
+    public DataSource dataSource(DataSourcePools pools,
+                                 @Value("${app.datasource.replica-retry-after:PT10S}") Duration retryAfter,
+                                 CacheRefillWindow refillWindow) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(pools.getPrimary(), pools.getReplicas(), retryAfter, refillWindow));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String url) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+}
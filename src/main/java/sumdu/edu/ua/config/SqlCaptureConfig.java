@@ -0,0 +1,34 @@
+package sumdu.edu.ua.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import sumdu.edu.ua.persistence.jdbc.StatementListener;
+import sumdu.edu.ua.persistence.jdbc.TimedDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.instrumentation.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlCaptureConfig {
+
+    /**
+     * Wraps the application DataSource in {@link TimedDataSource} reporting to all {@link StatementListener} beans
+     * ({@link sumdu.edu.ua.persistence.jdbc.SqlStatementStats}, tracing).
+     * Static and lazily resolving the listeners, so that other post processors are not initialized early.
+     */
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, listeners.orderedStream().toList());
+                }
+                return bean;
+            }
+        };
+    }
+}
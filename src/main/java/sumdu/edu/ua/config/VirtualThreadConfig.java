@@ -0,0 +1,58 @@
+package sumdu.edu.ua.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import sumdu.edu.ua.web.service.PlatformThreadMailSender;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Virtual-thread mode ({@code spring.threads.virtual.enabled=true}): Spring Boot runs Tomcat requests,
+ * {@code @Async} methods and scheduled tasks on virtual threads; this configuration keeps SMTP sends,
+ * which pin their carrier, on platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Platform threads for SMTP sends started on virtual threads.
+     * Its size is the maximum number of concurrent sends from requests.
+     */
+    @Bean(name = "mailTransportExecutor")
+    public ThreadPoolTaskExecutor mailTransportExecutor(
+            @Value("${app.mail.transport-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("mail-transport-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Wraps the mail sender in {@link PlatformThreadMailSender}.
+     * Static and lazily resolving the executor, so that other post processors are not initialized early.
+     */
+    @Bean
+    public static BeanPostProcessor platformThreadMailSenderPostProcessor(
+            @Qualifier("mailTransportExecutor") ObjectProvider<Executor> transportExecutor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JavaMailSender sender && !(bean instanceof PlatformThreadMailSender)) {
+                    return new PlatformThreadMailSender(sender, transportExecutor.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
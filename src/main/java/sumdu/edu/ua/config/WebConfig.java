@@ -9,12 +9,22 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
+import sumdu.edu.ua.web.limit.RateLimitInterceptor;
+import sumdu.edu.ua.web.tracing.TracingHandlerInterceptor;
 
 import java.util.Locale;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final TracingHandlerInterceptor tracingHandlerInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public WebConfig(TracingHandlerInterceptor tracingHandlerInterceptor, RateLimitInterceptor rateLimitInterceptor) {
+        this.tracingHandlerInterceptor = tracingHandlerInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
     /**
      * Configures MessageSource for internationalization.
      * Bean name must be "messageSource" for Spring Boot to use it.
@@ -35,7 +45,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Bean
     public LocaleResolver localeResolver() {
         SessionLocaleResolver resolver = new SessionLocaleResolver();
-        resolver.setDefaultLocale(new Locale("uk")); // Default to Ukrainian
+        resolver.setDefaultLocale(Locale.of("uk")); // Default to Ukrainian
         return resolver;
     }
 
@@ -52,5 +62,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
+        registry.addInterceptor(tracingHandlerInterceptor);
+        registry.addInterceptor(rateLimitInterceptor);
     }
 }
@@ -0,0 +1,22 @@
+package sumdu.edu.ua.core.domain;
+
+/**
+ * A book with one page of its comments.
+ */
+public class BookDetails {
+    private final Book book;
+    private final Page<Comment> comments;
+
+    public BookDetails(Book book, Page<Comment> comments) {
+        this.book = book;
+        this.comments = comments;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public Page<Comment> getComments() {
+        return comments;
+    }
+}
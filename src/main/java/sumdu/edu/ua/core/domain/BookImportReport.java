@@ -0,0 +1,19 @@
+package sumdu.edu.ua.core.domain;
+
+import java.util.List;
+
+/**
+ * Progress of a book import, reported after every chunk; the last report has {@code done} set.
+ *
+ * @param read rows read so far
+ * @param imported books inserted
+ * @param invalid rows rejected by validation or parsing
+ * @param duplicates rows skipped because an earlier row of the import had the same title, author and year
+ * @param errors the first rejected rows with their reasons
+ */
+public record BookImportReport(long read, long imported, long invalid, long duplicates,
+                               List<RowError> errors, boolean done) {
+
+    public record RowError(long line, String message) {
+    }
+}
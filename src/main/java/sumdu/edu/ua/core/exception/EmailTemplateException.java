@@ -0,0 +1,8 @@
+package sumdu.edu.ua.core.exception;
+
+public class EmailTemplateException extends RuntimeException {
+
+    public EmailTemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package sumdu.edu.ua.core.exception;
+
+public class LookupTimeoutException extends RuntimeException {
+
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
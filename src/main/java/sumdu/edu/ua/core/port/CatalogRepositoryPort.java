@@ -4,6 +4,9 @@ import sumdu.edu.ua.core.domain.Book;
 import sumdu.edu.ua.core.domain.Page;
 import sumdu.edu.ua.core.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
  * Port interface for book catalog repository operations.
  * This follows the Port-Adapter pattern for repository abstraction.
@@ -12,5 +15,22 @@ public interface CatalogRepositoryPort {
     Page<Book> search(String query, PageRequest request);
     Book findById(long id);
     Book add(String title, String author, int pubYear);
+
+    /**
+     * Adds books in one transaction, sent to the database in batches. The ids of the given books are ignored.
+     *
+     * @return the added books with their ids
+     */
+    List<Book> addAll(List<Book> books);
+    /**
+     * @return up to {@code limit} books added in {@code [from, to)}, newest first, with the number of all of them
+     */
+    Page<Book> findNewestAddedBetween(Instant from, Instant to, int limit);
+    List<Book> findRecent(int limit);
+
+    /**
+     * @return up to {@code limit} books with ids larger than {@code afterId}, newest first
+     */
+    List<Book> findRecentAfter(long afterId, int limit);
 }
 
@@ -5,6 +5,7 @@ import sumdu.edu.ua.core.domain.Page;
 import sumdu.edu.ua.core.domain.PageRequest;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Port interface for comment repository operations.
@@ -13,6 +14,14 @@ import java.time.Instant;
 public interface CommentRepositoryPort {
     void add(long bookId, String author, String text);
     Page<Comment> list(long bookId, String author, Instant since, PageRequest request);
+
+    /**
+     * Items of {@link #list} without the total, for callers that count separately.
+     */
+    List<Comment> listItems(long bookId, String author, Instant since, PageRequest request);
+
+    long count(long bookId, String author, Instant since);
+
     Comment findById(long bookId, long commentId);
     void delete(long bookId, long commentId);
 }
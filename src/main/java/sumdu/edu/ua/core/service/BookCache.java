@@ -0,0 +1,183 @@
+package sumdu.edu.ua.core.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sumdu.edu.ua.core.domain.Book;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded cache of books by id. Books are never updated once added, so entries do not expire;
+ * ids that do not exist are cached as absent for {@code app.book-cache.negative-ttl}, so probing
+ * unknown ids does not reach the database on every request.
+ *
+ * Found and absent ids are bounded separately, so a scan over unknown ids cannot push books out.
+ * When a map is full, a CLOCK hand evicts entries that were not read since it last passed them.
+ * Cached {@link Book} instances are shared and must not be modified.
+ *
+ * Publishes {@code cache.gets} ({@code result=hit|miss}), {@code cache.puts}, {@code cache.evictions}
+ * and {@code cache.size} tagged {@code cache=books}, and {@code app.book-cache.negative-hits}.
+ */
+@Component
+public class BookCache {
+
+    private final Clock books;
+    private final Clock absent;
+    private final long negativeTtlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public BookCache(MeterRegistry registry,
+                     @Value("${app.book-cache.max-size:10000}") int maxSize,
+                     @Value("${app.book-cache.max-negative-size:10000}") int maxNegativeSize,
+                     @Value("${app.book-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.books = new Clock(maxSize);
+        this.absent = new Clock(maxNegativeSize);
+        this.negativeTtlNanos = negativeTtl.toNanos();
+
+        FunctionCounter.builder("cache.gets", this, c -> c.hits.sum() + c.negativeHits.sum())
+                .tag("cache", "books").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", "books").tag("result", "miss").register(registry);
+        FunctionCounter.builder("app.book-cache.negative-hits", negativeHits, LongAdder::sum)
+                .description("Lookups of ids cached as absent").register(registry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::sum)
+                .tag("cache", "books").register(registry);
+        FunctionCounter.builder("cache.evictions", this, c -> c.books.evictions.sum() + c.absent.evictions.sum())
+                .tag("cache", "books").register(registry);
+        Gauge.builder("cache.size", books.entries, Map::size)
+                .tag("cache", "books").register(registry);
+    }
+
+    /**
+     * @param loader reads the book from the database, returning null if it does not exist
+     * @return the cached or loaded book, or null if it does not exist
+     */
+    public Book get(long id, LongFunction<Book> loader) {
+        Entry entry = books.get(id);
+        if (entry != null) {
+            hits.increment();
+            return entry.book;
+        }
+        Entry none = absent.get(id);
+        if (none != null) {
+            if (System.nanoTime() - none.expiresAtNanos < 0) {
+                negativeHits.increment();
+                return null;
+            }
+            absent.entries.remove(id, none);
+        }
+
+        misses.increment();
+        Book book = loader.apply(id);
+        if (book != null) {
+            put(book);
+        } else {
+            absent.put(id, new Entry(null, System.nanoTime() + negativeTtlNanos));
+        }
+        return book;
+    }
+
+    /**
+     * Caches a book that was just added or read, replacing a cached absence of its id.
+     */
+    public void put(Book book) {
+        puts.increment();
+        absent.entries.remove(book.getId());
+        books.put(book.getId(), new Entry(book, 0));
+    }
+
+    /**
+     * Forgets what is cached for an id, e.g. after another instance added the book.
+     */
+    public void evict(long id) {
+        books.entries.remove(id);
+        absent.entries.remove(id);
+    }
+
+    /**
+     * Forgets all ids cached as absent, e.g. after another instance added many books.
+     */
+    public void evictAbsent() {
+        absent.entries.clear();
+    }
+
+    public int size() {
+        return books.entries.size();
+    }
+
+    private static final class Entry {
+        final Book book;
+        final long expiresAtNanos;
+        volatile boolean referenced;
+
+        Entry(Book book, long expiresAtNanos) {
+            this.book = book;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Map bounded by CLOCK (second chance) eviction: reads only set a flag, and the hand that
+     * walks the map on inserts into a full map is the only part behind a lock.
+     */
+    private static final class Clock {
+        final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+        final LongAdder evictions = new LongAdder();
+        private final int maxSize;
+        private final ReentrantLock handLock = new ReentrantLock();
+        private Iterator<Map.Entry<Long, Entry>> hand;
+
+        Clock(int maxSize) {
+            this.maxSize = Math.max(1, maxSize);
+        }
+
+        Entry get(long id) {
+            Entry entry = entries.get(id);
+            if (entry != null && !entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry;
+        }
+
+        void put(long id, Entry entry) {
+            if (entries.put(id, entry) == null && entries.size() > maxSize) {
+                evict();
+            }
+        }
+
+        private void evict() {
+            handLock.lock();
+            try {
+                // two rounds at most: the first may only clear reference flags
+                for (int steps = 0; entries.size() > maxSize && steps < 2 * (maxSize + 1); steps++) {
+                    if (hand == null || !hand.hasNext()) {
+                        hand = entries.entrySet().iterator();
+                        if (!hand.hasNext()) {
+                            return;
+                        }
+                    }
+                    Map.Entry<Long, Entry> candidate = hand.next();
+                    if (candidate.getValue().referenced) {
+                        candidate.getValue().referenced = false;
+                    } else if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                        evictions.increment();
+                    }
+                }
+            } finally {
+                handLock.unlock();
+            }
+        }
+    }
+}
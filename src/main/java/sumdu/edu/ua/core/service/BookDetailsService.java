@@ -0,0 +1,120 @@
+package sumdu.edu.ua.core.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.BookDetails;
+import sumdu.edu.ua.core.domain.Comment;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.exception.LookupTimeoutException;
+import sumdu.edu.ua.core.port.CommentRepositoryPort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads a book and a page of its comments for the book pages.
+ *
+ * The book, the comment page and the comment count are independent reads, so they run concurrently on
+ * {@code lookupExecutor}, each in its own read-only transaction, and the caller waits for the slowest one
+ * instead of their sum. The first failure or the {@code app.lookup.timeout} deadline cancels the reads
+ * that have not started yet.
+ */
+@Service
+public class BookDetailsService {
+
+    private final BookService bookService;
+    private final CommentRepositoryPort commentRepo;
+    private final Executor executor;
+    private final Duration timeout;
+
+    @Autowired
+    public BookDetailsService(BookService bookService,
+                              CommentRepositoryPort commentRepo,
+                              @Qualifier("lookupExecutor") Executor executor,
+                              @Value("${app.lookup.timeout:PT2S}") Duration timeout) {
+        this.bookService = bookService;
+        this.commentRepo = commentRepo;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param bookId the book ID
+     * @param commentsPage page of comments, newest first
+     * @return the book with the comment page, or null if the book does not exist
+     * @throws IllegalArgumentException if bookId is invalid
+     * @throws LookupTimeoutException if the reads do not complete within the timeout
+     */
+    public BookDetails findById(long bookId, PageRequest commentsPage) {
+        bookService.validateBookId(bookId);
+
+        CompletableFuture<Book> book =
+                CompletableFuture.supplyAsync(() -> bookService.findById(bookId), executor);
+        CompletableFuture<List<Comment>> comments =
+                CompletableFuture.supplyAsync(() -> commentRepo.listItems(bookId, null, null, commentsPage), executor);
+        CompletableFuture<Long> total =
+                CompletableFuture.supplyAsync(() -> commentRepo.count(bookId, null, null), executor);
+        CompletableFuture<?>[] reads = {book, comments, total};
+
+        try {
+            // fail fast: any failure completes the wait without waiting for the other reads
+            CompletableFuture<Object> firstFailure = new CompletableFuture<>();
+            for (CompletableFuture<?> read : reads) {
+                read.whenComplete((result, error) -> {
+                    if (error != null) {
+                        firstFailure.completeExceptionally(error);
+                    }
+                });
+            }
+            CompletableFuture.anyOf(CompletableFuture.allOf(reads), firstFailure)
+                    .get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancel(reads);
+            throw new LookupTimeoutException("Book " + bookId + " was not loaded within " + timeout);
+        } catch (InterruptedException e) {
+            cancel(reads);
+            Thread.currentThread().interrupt();
+            throw new LookupTimeoutException("Interrupted while loading book " + bookId);
+        } catch (ExecutionException e) {
+            cancel(reads);
+            throw unwrap(e.getCause());
+        }
+
+        if (book.join() == null) {
+            return null;
+        }
+        return new BookDetails(book.join(), new Page<>(comments.join(), commentsPage, total.join()));
+    }
+
+    /**
+     * Reads still queued are skipped; a statement already running completes on its own thread.
+     */
+    private static void cancel(CompletableFuture<?>[] reads) {
+        for (CompletableFuture<?> read : reads) {
+            read.cancel(false);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IllegalStateException(error);
+    }
+}
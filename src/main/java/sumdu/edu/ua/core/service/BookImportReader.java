@@ -0,0 +1,223 @@
+package sumdu.edu.ua.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the rows of a book import one at a time, so that an import of any size is never held in memory.
+ * A row that cannot be parsed is returned with an error instead of ending the import.
+ */
+public abstract class BookImportReader {
+
+    /**
+     * @param line line of the input the row starts on, counted from 1
+     * @param error why the row could not be parsed, or null
+     */
+    public record Row(long line, String title, String author, int pubYear, String error) {
+
+        static Row invalid(long line, String error) {
+            return new Row(line, null, null, 0, error);
+        }
+    }
+
+    protected final BufferedReader in;
+    protected long line;
+
+    private BookImportReader(Reader in) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+    }
+
+    /**
+     * CSV with a header row naming the {@code title}, {@code author} and {@code pub_year} (or {@code pubYear},
+     * {@code year}) columns in any order. Fields may be quoted, with {@code ""} for a quote inside.
+     *
+     * @throws IllegalArgumentException if the header lacks one of the columns
+     */
+    public static BookImportReader csv(Reader in) throws IOException {
+        return new Csv(in);
+    }
+
+    /**
+     * One JSON object per line, e.g. {@code {"title":"...","author":"...","pubYear":2020}}.
+     */
+    public static BookImportReader ndjson(Reader in, ObjectMapper mapper) {
+        return new NdJson(in, mapper);
+    }
+
+    /**
+     * @return the next row, or null at the end of the input
+     */
+    public abstract Row next() throws IOException;
+
+    /**
+     * @return the next non-blank line, or null at the end of the input
+     */
+    protected String nextLine() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        return text;
+    }
+
+    private static int parseYear(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("pubYear must be a number: " + value);
+        }
+    }
+
+    private static final class Csv extends BookImportReader {
+
+        private final int titleColumn;
+        private final int authorColumn;
+        private final int yearColumn;
+        private final int columns;
+        private long recordLine;
+
+        Csv(Reader in) throws IOException {
+            super(in);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV is empty");
+            }
+            int title = -1;
+            int author = -1;
+            int year = -1;
+            for (int i = 0; i < header.size(); i++) {
+                // a byte order mark, as written by spreadsheet programs, is not part of the first name
+                switch (header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT)) {
+                    case "title" -> title = i;
+                    case "author" -> author = i;
+                    case "pub_year", "pubyear", "year" -> year = i;
+                    default -> { }
+                }
+            }
+            if (title < 0 || author < 0 || year < 0) {
+                throw new IllegalArgumentException("CSV header must name the title, author and pub_year columns");
+            }
+            this.titleColumn = title;
+            this.authorColumn = author;
+            this.yearColumn = year;
+            this.columns = header.size();
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns) {
+                return Row.invalid(recordLine, "expected " + columns + " fields, got " + fields.size());
+            }
+            try {
+                return new Row(recordLine, fields.get(titleColumn), fields.get(authorColumn),
+                        parseYear(fields.get(yearColumn)), null);
+            } catch (IllegalArgumentException e) {
+                return Row.invalid(recordLine, e.getMessage());
+            }
+        }
+
+        /**
+         * @return fields of the next record, which continues over line breaks inside quotes; null at the end
+         */
+        private List<String> readRecord() throws IOException {
+            String text = nextLine();
+            if (text == null) {
+                return null;
+            }
+            long start = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    String more = in.readLine();
+                    if (more == null) {
+                        break;
+                    }
+                    line++;
+                    field.append('\n');
+                    text = more;
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            recordLine = start;
+            return fields;
+        }
+    }
+
+    private static final class NdJson extends BookImportReader {
+
+        private final ObjectMapper mapper;
+
+        NdJson(Reader in, ObjectMapper mapper) {
+            super(in);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text = nextLine();
+            if (text == null) {
+                return null;
+            }
+            try {
+                JsonNode node = mapper.readTree(text);
+                if (!node.isObject()) {
+                    return Row.invalid(line, "expected a JSON object");
+                }
+                JsonNode year = node.has("pubYear") ? node.get("pubYear") : node.get("pub_year");
+                if (year == null || !(year.isIntegralNumber() || year.isTextual())) {
+                    return Row.invalid(line, "pubYear is required");
+                }
+                return new Row(line, text(node, "title"), text(node, "author"),
+                        year.isIntegralNumber() ? year.intValue() : parseYear(year.textValue()), null);
+            } catch (JsonProcessingException e) {
+                return Row.invalid(line, "malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return Row.invalid(line, e.getMessage());
+            }
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package sumdu.edu.ua.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.BookImportReport;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Imports books in bulk, e.g. a publisher's catalog.
+ *
+ * Rows are read in chunks of {@code app.book-import.chunk-size}. The rows of a chunk are validated in parallel
+ * with {@link BookService#validateBookFields} on the {@code bookImportPool}, rows repeating the title, author
+ * and year of an earlier row of the import are skipped, and the rest are inserted in one transaction per chunk.
+ * An import that fails midway keeps the chunks inserted before the failure.
+ *
+ * Instead of one email per book, the admin gets one email when the import ends.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    static final int MAX_ERRORS = 100;
+    static final int EMAIL_SAMPLE_SIZE = 20;
+
+    private final CatalogRepositoryPort bookRepo;
+    private final BookService bookService;
+    private final BookCache bookCache;
+    private final ContentVersions versions;
+    private final ObjectProvider<EmailService> emailService;
+    private final ForkJoinPool validationPool;
+    private final int chunkSize;
+
+    @Autowired
+    public BookImportService(CatalogRepositoryPort bookRepo,
+                             BookService bookService,
+                             BookCache bookCache,
+                             ContentVersions versions,
+                             ObjectProvider<EmailService> emailService,
+                             @Qualifier("bookImportPool") ForkJoinPool validationPool,
+                             @Value("${app.book-import.chunk-size:1000}") int chunkSize) {
+        this.bookRepo = bookRepo;
+        this.bookService = bookService;
+        this.bookCache = bookCache;
+        this.versions = versions;
+        this.emailService = emailService;
+        this.validationPool = validationPool;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Only ADMIN can import books.
+     *
+     * @param progress receives a report after every chunk and a final one with {@code done} set
+     * @return the final report
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public BookImportReport importBooks(BookImportReader reader, Locale locale,
+                                        Consumer<BookImportReport> progress) throws IOException {
+        LongHashSet seen = new LongHashSet();
+        List<BookImportReport.RowError> errors = new ArrayList<>();
+        List<Book> sample = new ArrayList<>();
+        long read = 0;
+        long imported = 0;
+        long invalid = 0;
+        long duplicates = 0;
+
+        List<BookImportReader.Row> rows = new ArrayList<>(chunkSize);
+        boolean end = false;
+        while (!end) {
+            rows.clear();
+            BookImportReader.Row row;
+            while (rows.size() < chunkSize && (row = reader.next()) != null) {
+                rows.add(row);
+            }
+            end = rows.size() < chunkSize;
+            if (rows.isEmpty()) {
+                break;
+            }
+            read += rows.size();
+
+            List<Checked> checked = validate(rows);
+            List<Book> books = new ArrayList<>(checked.size());
+            for (Checked check : checked) {
+                if (check.error() != null) {
+                    invalid++;
+                    if (errors.size() < MAX_ERRORS) {
+                        errors.add(new BookImportReport.RowError(check.row().line(), check.error()));
+                    }
+                } else if (!seen.add(check.key())) {
+                    duplicates++;
+                } else {
+                    books.add(new Book(0, check.row().title().trim(), check.row().author().trim(),
+                            check.row().pubYear()));
+                }
+            }
+
+            if (!books.isEmpty()) {
+                List<Book> saved = bookRepo.addAll(books);
+                // the ids may be cached as absent; the books themselves are left for readers to load
+                saved.forEach(book -> bookCache.evict(book.getId()));
+                versions.catalogChanged();
+                imported += saved.size();
+                for (int i = 0; i < saved.size() && sample.size() < EMAIL_SAMPLE_SIZE; i++) {
+                    sample.add(saved.get(i));
+                }
+            }
+            if (!end) {
+                progress.accept(new BookImportReport(read, imported, invalid, duplicates, List.copyOf(errors), false));
+            }
+        }
+
+        BookImportReport report = new BookImportReport(read, imported, invalid, duplicates, List.copyOf(errors), true);
+        log.info("Imported {} of {} books ({} invalid, {} duplicates)", imported, read, invalid, duplicates);
+        if (imported > 0) {
+            emailService.getObject().sendBooksImportedEmail(imported, sample, locale);
+        }
+        progress.accept(report);
+        return report;
+    }
+
+    private List<Checked> validate(List<BookImportReader.Row> rows) {
+        return validationPool.submit(() -> rows.parallelStream().map(this::check).toList()).join();
+    }
+
+    private Checked check(BookImportReader.Row row) {
+        if (row.error() != null) {
+            return new Checked(row, row.error(), 0);
+        }
+        try {
+            bookService.validateBookFields(row.title(), row.author(), row.pubYear());
+        } catch (IllegalArgumentException e) {
+            return new Checked(row, e.getMessage(), 0);
+        }
+        return new Checked(row, null, key(row));
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the title, author and year, ignoring case and repeated whitespace.
+     * At 64 bits, two different books colliding within an import of millions is practically impossible.
+     */
+    static long key(BookImportReader.Row row) {
+        String normalized = normalize(row.title()) + '\u0000' + normalize(row.author()) + '\u0000' + row.pubYear();
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : normalized.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Checked(BookImportReader.Row row, String error, long key) {
+    }
+
+    /**
+     * Open addressing set of longs, so the keys of millions of rows take 8 to 16 bytes each instead of a boxed entry.
+     */
+    static final class LongHashSet {
+        private long[] table = new long[1 << 10];
+        private boolean containsZero;
+        private int size;
+
+        /**
+         * @return true if the value was not in the set yet
+         */
+        boolean add(long value) {
+            if (value == 0) {
+                boolean added = !containsZero;
+                containsZero = true;
+                return added;
+            }
+            int mask = table.length - 1;
+            int i = spread(value) & mask;
+            while (table[i] != 0) {
+                if (table[i] == value) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = value;
+            if (++size > table.length / 2) {
+                grow();
+            }
+            return true;
+        }
+
+        private void grow() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            int mask = table.length - 1;
+            for (long value : old) {
+                if (value != 0) {
+                    int i = spread(value) & mask;
+                    while (table[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    table[i] = value;
+                }
+            }
+        }
+
+        private static int spread(long value) {
+            return (int) (value ^ (value >>> 32));
+        }
+    }
+}
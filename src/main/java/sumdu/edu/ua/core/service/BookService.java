@@ -1,11 +1,19 @@
 package sumdu.edu.ua.core.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import sumdu.edu.ua.core.domain.Book;
 import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.persistence.jdbc.CatalogSnapshot;
+import sumdu.edu.ua.persistence.jdbc.CatalogSnapshots;
 
 /**
  * Service class for book business logic.
@@ -14,14 +22,29 @@ import sumdu.edu.ua.core.port.CatalogRepositoryPort;
  * - Book title and author must not be empty.
  * - Publication year must be valid (greater than 0).
  * - Book ID must be valid (greater than 0) for lookups.
+ *
+ * Books are read through {@link BookCache}, which is warmed with the newest books on startup, from the
+ * catalog snapshot if there is one.
  */
 @Service
 public class BookService {
     private final CatalogRepositoryPort bookRepo;
+    private final BookCache bookCache;
+    private final ContentVersions versions;
+    private final ObjectProvider<CatalogSnapshots> snapshots;
+    private final int warmupSize;
 
     @Autowired
-    public BookService(CatalogRepositoryPort bookRepo) {
+    public BookService(CatalogRepositoryPort bookRepo,
+                       BookCache bookCache,
+                       ContentVersions versions,
+                       ObjectProvider<CatalogSnapshots> snapshots,
+                       @Value("${app.book-cache.warmup-size:1000}") int warmupSize) {
         this.bookRepo = bookRepo;
+        this.bookCache = bookCache;
+        this.versions = versions;
+        this.snapshots = snapshots;
+        this.warmupSize = warmupSize;
     }
 
     /**
@@ -70,7 +93,11 @@ public class BookService {
     @Transactional
     public Book addBook(String title, String author, int pubYear) {
         validateBookFields(title, author, pubYear);
-        return bookRepo.add(title.trim(), author.trim(), pubYear);
+        Book book = bookRepo.add(title.trim(), author.trim(), pubYear);
+        // cached only once committed, so a rollback does not leave a book that never existed
+        afterCommit(() -> bookCache.put(book));
+        versions.catalogChanged();
+        return book;
     }
 
     /**
@@ -80,10 +107,42 @@ public class BookService {
      * @return the book, or null if not found
      * @throws IllegalArgumentException if bookId is invalid
      */
-    @Transactional(readOnly = true)
     public Book findById(long id) {
         validateBookId(id);
-        return bookRepo.findById(id);
+        return bookCache.get(id, bookRepo::findById);
+    }
+
+    /**
+     * Loads the newest books into the cache, so the first views of recent books do not query them.
+     * With a snapshot, only the newest books with ids beyond it are queried, at most {@code warmup-size} of them.
+     * A book committed after the snapshot with a smaller id, e.g. from another instance's sequence block, is
+     * not warmed and is loaded on its first view.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCache() {
+        if (warmupSize <= 0) {
+            return;
+        }
+        CatalogSnapshots store = snapshots.getIfAvailable();
+        CatalogSnapshot snapshot = store != null ? store.open() : null;
+        if (snapshot == null) {
+            bookRepo.findRecent(warmupSize).forEach(bookCache::put);
+            return;
+        }
+        snapshot.newest(warmupSize).forEach(bookCache::put);
+        bookRepo.findRecentAfter(snapshot.maxId(), warmupSize).forEach(bookCache::put);
     }
-}
 
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -26,11 +26,14 @@ public class CommentService {
     
     private final CommentRepositoryPort repo;
     private final CommentRepository commentRepository;
+    private final ContentVersions versions;
 
     @Autowired
-    public CommentService(CommentRepositoryPort repo, CommentRepository commentRepository) {
+    public CommentService(CommentRepositoryPort repo, CommentRepository commentRepository,
+                          ContentVersions versions) {
         this.repo = repo;
         this.commentRepository = commentRepository;
+        this.versions = versions;
     }
 
     public void validateCommentFields(long bookId, String author, String text) {
@@ -73,6 +76,7 @@ public class CommentService {
         validateCommentFields(bookId, author, text);
         validateCommentText(text);
         repo.add(bookId, author.trim(), text.trim());
+        versions.commentsChanged(bookId);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -93,6 +97,7 @@ public class CommentService {
         }
 
         repo.delete(bookId, commentId);
+        versions.commentsChanged(bookId);
     }
 
     @Transactional(readOnly = true)
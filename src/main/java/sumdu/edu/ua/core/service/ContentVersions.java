@@ -0,0 +1,95 @@
+package sumdu.edu.ua.core.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sumdu.edu.ua.persistence.jdbc.CacheRefillWindow;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of the data behind the catalog and book pages, used as HTTP entity tags.
+ *
+ * Services bump a counter after their transaction commits, so a response is never tagged with a
+ * version its data does not include yet; readers take the version before reading the data. The
+ * {@link #epoch()} distinguishes versions of this process from those of an earlier run. Each change also
+ * opens the {@link CacheRefillWindow}, so the caches keyed by the new version refill from the primary.
+ */
+@Component
+public class ContentVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLong subscriptions = new AtomicLong();
+    private final ConcurrentHashMap<Long, AtomicLong> comments = new ConcurrentHashMap<>();
+    private final CacheRefillWindow refillWindow;
+
+    @Autowired
+    public ContentVersions(CacheRefillWindow refillWindow) {
+        this.refillWindow = refillWindow;
+    }
+
+    public ContentVersions() {
+        this(new CacheRefillWindow(Duration.ZERO));
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return version of the book list, changed when a book is added
+     */
+    public long catalog() {
+        return catalog.get();
+    }
+
+    /**
+     * @return version of the comments of a book, changed when one is added or deleted
+     */
+    public long comments(long bookId) {
+        AtomicLong version = comments.get(bookId);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * @return version of the new book digest subscriptions, changed when a user subscribes or unsubscribes
+     */
+    public long subscriptions() {
+        return subscriptions.get();
+    }
+
+    public void catalogChanged() {
+        afterCommit(catalog::incrementAndGet);
+    }
+
+    public void commentsChanged(long bookId) {
+        afterCommit(() -> comments.computeIfAbsent(bookId, id -> new AtomicLong()).incrementAndGet());
+    }
+
+    public void subscriptionsChanged() {
+        afterCommit(subscriptions::incrementAndGet);
+    }
+
+    private void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed(bump);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed(bump);
+            }
+        });
+    }
+
+    private void changed(Runnable bump) {
+        // opened first, so a reader that sees the new version also reads from the primary
+        refillWindow.open();
+        bump.run();
+    }
+}
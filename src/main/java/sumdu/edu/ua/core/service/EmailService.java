@@ -1,28 +1,45 @@
 package sumdu.edu.ua.core.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.web.service.ConfirmationEmailModel;
 import sumdu.edu.ua.web.service.EmailTemplateProcessor;
+import sumdu.edu.ua.web.service.NewBookEmailModel;
+import sumdu.edu.ua.web.service.NewBooksDigestEmailModel;
+import sumdu.edu.ua.web.service.RenderedEmail;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Locale;
 
+/**
+ * Builds and sends notification emails.
+ * Created lazily on the first email so that templates and mail settings do not delay startup.
+ */
 @Service
+@Lazy
 public class EmailService {
 
     private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+    private static final DateTimeFormatter ADDED_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     private final JavaMailSender mailSender;
     private final EmailTemplateProcessor templateProcessor;
+    private final MessageSource messageSource;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username:}")
     private String fromEmail;
@@ -31,9 +48,19 @@ public class EmailService {
     private String baseUrl;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender, EmailTemplateProcessor templateProcessor) {
+    public EmailService(JavaMailSender mailSender, EmailTemplateProcessor templateProcessor,
+                        MessageSource messageSource, MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
         this.templateProcessor = templateProcessor;
+        this.messageSource = messageSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return true if SMTP credentials are configured and emails can be sent
+     */
+    public boolean isMailConfigured() {
+        return fromEmail != null && !fromEmail.isEmpty() && !fromEmail.contains("YOUR_GMAIL");
     }
 
     /**
@@ -46,24 +73,20 @@ public class EmailService {
     public boolean sendConfirmationEmail(String toEmail, String firstName, String confirmationCode) {
         try {
             // Check if email is configured
-            if (fromEmail == null || fromEmail.isEmpty() || fromEmail.contains("YOUR_GMAIL")) {
+            if (!isMailConfigured()) {
                 log.warn("Email is not configured. Skipping email send. Confirmation code for {}: {}", 
                         toEmail, confirmationCode);
                 log.warn("To confirm account, visit: {}/confirm?code={}", baseUrl, confirmationCode);
+                recordOutcome("confirmation", "skipped");
                 return false; // Email not sent
             }
 
             String confirmationUrl = baseUrl + "/confirm?code=" + confirmationCode;
             String displayFirstName = firstName != null && !firstName.isEmpty() ? firstName : "User";
 
-            // Prepare template model
-            Map<String, Object> model = new HashMap<>();
-            model.put("firstName", displayFirstName);
-            model.put("confirmationUrl", confirmationUrl);
-            model.put("confirmationCode", confirmationCode);
-
             // Process template
-            String html = templateProcessor.process("confirmation_email.ftl", model);
+            String html = templateProcessor.process(
+                    new ConfirmationEmailModel(displayFirstName, confirmationUrl, confirmationCode));
             log.debug("Email template processed successfully");
 
             // Create MIME message
@@ -78,9 +101,11 @@ public class EmailService {
 
             mailSender.send(message);
             log.info("Confirmation email sent successfully to: {}", toEmail);
+            recordOutcome("confirmation", "success");
             return true; // Email sent successfully
         } catch (Exception e) {
             log.error("Failed to send confirmation email to: {}", toEmail, e);
+            recordOutcome("confirmation", "failure");
             log.warn("Confirmation code for {}: {} - User can still confirm manually via /confirm?code={}", 
                     toEmail, confirmationCode, confirmationCode);
             return false; // Email not sent due to error
@@ -92,21 +117,15 @@ public class EmailService {
             log.info("Preparing email for book: {} by {}", book.getTitle(), book.getAuthor());
 
             // Check if email is configured
-            if (fromEmail == null || fromEmail.isEmpty() || fromEmail.contains("YOUR_GMAIL")) {
+            if (!isMailConfigured()) {
                 log.warn("Email is not configured. Skipping new book notification email.");
+                recordOutcome("new_book", "skipped");
                 return;
             }
 
-            LocalDateTime now = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            
-            Map<String, Object> model = new HashMap<>();
-            model.put("title", book.getTitle());
-            model.put("author", book.getAuthor());
-            model.put("year", book.getPubYear());
-            model.put("added", now.format(formatter));
-
-            String html = templateProcessor.process("new_book.ftl", model);
+            String html = templateProcessor.process(new NewBookEmailModel(
+                    book.getTitle(), book.getAuthor(), book.getPubYear(),
+                    LocalDateTime.now().format(ADDED_FORMATTER)));
             log.debug("Email template processed successfully");
 
             MimeMessage message = mailSender.createMimeMessage();
@@ -120,10 +139,110 @@ public class EmailService {
 
             mailSender.send(message);
             log.info("New book email sent successfully");
+            recordOutcome("new_book", "success");
         } catch (Exception e) {
             log.error("Failed to send email for book: {} by {}", book.getTitle(), book.getAuthor(), e);
+            recordOutcome("new_book", "failure");
             // Don't throw exception - allow book creation to succeed even if email fails
         }
     }
-}
 
+    /**
+     * Renders the new books digest for one locale.
+     * The result does not depend on the recipient, so it is rendered once and sent to every subscriber of the locale.
+     *
+     * @param books the newest books added in the digest window
+     * @param total number of all books added in the window; when larger than {@code books}, the intro says so
+     * @param locale subscribers' locale
+     * @return localized subject and HTML body
+     */
+    public RenderedEmail renderNewBooksDigest(List<Book> books, long total, Locale locale) {
+        List<NewBooksDigestEmailModel.Entry> entries = books.stream()
+                .map(book -> new NewBooksDigestEmailModel.Entry(book.getTitle(), book.getAuthor(), book.getPubYear()))
+                .toList();
+        NewBooksDigestEmailModel model = new NewBooksDigestEmailModel(
+                messageSource.getMessage("email.digest.heading", null, locale),
+                total > books.size()
+                        ? messageSource.getMessage("email.digest.intro.more", new Object[]{total, books.size()}, locale)
+                        : messageSource.getMessage("email.digest.intro", new Object[]{total}, locale),
+                messageSource.getMessage("email.digest.footer", null, locale),
+                entries);
+        String subject = messageSource.getMessage("email.digest.subject", null, locale);
+        return new RenderedEmail(subject, templateProcessor.process(model));
+    }
+
+    /**
+     * Sends the admin one email about a finished book import, listing the first imported books.
+     *
+     * @param imported number of books imported
+     * @param sample the first imported books
+     * @param locale locale of the admin who ran the import
+     */
+    public void sendBooksImportedEmail(long imported, List<Book> sample, Locale locale) {
+        if (!isMailConfigured()) {
+            log.warn("Email is not configured. Skipping email about {} imported books.", imported);
+            recordOutcome("books_import", "skipped");
+            return;
+        }
+        try {
+            List<NewBooksDigestEmailModel.Entry> entries = sample.stream()
+                    .map(book -> new NewBooksDigestEmailModel.Entry(book.getTitle(), book.getAuthor(), book.getPubYear()))
+                    .toList();
+            String html = templateProcessor.process(new NewBooksDigestEmailModel(
+                    messageSource.getMessage("email.import.heading", null, locale),
+                    messageSource.getMessage("email.import.intro", new Object[]{imported, entries.size()}, locale),
+                    messageSource.getMessage("email.import.footer", null, locale),
+                    entries));
+
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(fromEmail); // Send to admin email
+            helper.setSubject(messageSource.getMessage("email.import.subject", null, locale));
+            helper.setText(html, true);
+
+            mailSender.send(message);
+            recordOutcome("books_import", "success");
+        } catch (Exception e) {
+            log.error("Failed to send email about {} imported books", imported, e);
+            recordOutcome("books_import", "failure");
+        }
+    }
+
+    /**
+     * Sends one already rendered email to a chunk of recipients.
+     * Recipients are put into BCC so they do not see each other's addresses.
+     *
+     * @param email rendered subject and body
+     * @param recipients recipient email addresses
+     * @throws MessagingException if the message cannot be built or sent
+     */
+    public void sendToRecipients(RenderedEmail email, List<String> recipients) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(fromEmail);
+        helper.setBcc(recipients.toArray(new String[0]));
+        helper.setSubject(email.subject());
+        helper.setText(email.html(), true);
+
+        try {
+            mailSender.send(message);
+        } catch (RuntimeException e) {
+            recordOutcome("digest", "failure");
+            throw e;
+        }
+        recordOutcome("digest", "success");
+        log.debug("Email '{}' sent to {} recipients", email.subject(), recipients.size());
+    }
+
+    private void recordOutcome(String type, String outcome) {
+        Counter.builder("app.mail.sent")
+                .description("Emails by type and send outcome")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,222 @@
+package sumdu.edu.ua.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.persistence.jdbc.DigestCursor;
+import sumdu.edu.ua.persistence.jdbc.ReadYourWrites;
+import sumdu.edu.ua.persistence.repository.NewBookSubscriptionRepository;
+import sumdu.edu.ua.persistence.repository.NewBookSubscriptionRepository.Recipient;
+import sumdu.edu.ua.web.service.RenderedEmail;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically sends one digest of newly added books to all subscribers.
+ *
+ * The digest is rendered once per subscriber locale. Recipients are read in keyset-paged chunks
+ * and every chunk is sent as one message, with at most {@code concurrency} chunks in flight and
+ * at most {@code max-messages-per-second} messages per second.
+ *
+ * How far the digest has been sent is kept in {@link DigestCursor}, so books added while no instance ran are
+ * sent by the next run, and only the instance holding the cursor's lease sends a window. A book's creation time
+ * is stamped before its transaction commits, so a window ends {@code settle-time} before the run: books still
+ * being committed fall into the next window instead of being skipped. A window is sent again by the next run
+ * when mail is not configured, when sending is interrupted or when any chunk fails; recipients whose chunks were
+ * sent then get that window twice rather than someone missing it.
+ *
+ * A digest lists at most {@code max-books} of the newest books of its window and says how many were added in all,
+ * so a window with a large import still gives one email of bounded size.
+ */
+@Service
+public class NewBookDigestService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewBookDigestService.class);
+
+    private final CatalogRepositoryPort bookRepo;
+    private final NewBookSubscriptionRepository subscriptionRepository;
+    private final DigestCursor cursor;
+    private final ObjectProvider<EmailService> emailService;
+    private final Executor digestMailExecutor;
+    private final int chunkSize;
+    private final int concurrency;
+    private final Semaphore inFlight;
+    private final RateLimiter rateLimiter;
+    private final Duration settleTime;
+    private final Duration lease;
+    private final int maxBooks;
+
+    @Autowired
+    public NewBookDigestService(CatalogRepositoryPort bookRepo,
+                                NewBookSubscriptionRepository subscriptionRepository,
+                                DigestCursor cursor,
+                                ObjectProvider<EmailService> emailService,
+                                @Qualifier("digestMailExecutor") Executor digestMailExecutor,
+                                @Value("${app.notifications.digest.chunk-size:100}") int chunkSize,
+                                @Value("${app.notifications.digest.concurrency:4}") int concurrency,
+                                @Value("${app.notifications.digest.max-messages-per-second:5}") int maxMessagesPerSecond,
+                                @Value("${app.notifications.digest.settle-time:PT1M}") Duration settleTime,
+                                @Value("${app.notifications.digest.lease:PT1H}") Duration lease,
+                                @Value("${app.notifications.digest.max-books:100}") int maxBooks) {
+        this.bookRepo = bookRepo;
+        this.subscriptionRepository = subscriptionRepository;
+        this.cursor = cursor;
+        this.emailService = emailService;
+        this.digestMailExecutor = digestMailExecutor;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.inFlight = new Semaphore(concurrency);
+        this.rateLimiter = new RateLimiter(maxMessagesPerSecond);
+        this.settleTime = settleTime;
+        this.lease = lease;
+        this.maxBooks = Math.max(1, maxBooks);
+    }
+
+    /**
+     * Sends the digest of books added since the last sent window, unless another instance is sending it.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.digest.interval:PT15M}",
+               initialDelayString = "${app.notifications.digest.interval:PT15M}")
+    public void sendPendingDigest() {
+        Instant from = cursor.claim(lease);
+        if (from == null) {
+            log.debug("Another instance is sending the new book digest");
+            return;
+        }
+        Instant to = Instant.now().minus(settleTime);
+        boolean sent = false;
+        try {
+            sent = to.isAfter(from) && sendDigest(from, to);
+        } finally {
+            if (sent) {
+                cursor.advance(to);
+            } else {
+                cursor.release();
+            }
+        }
+    }
+
+    /**
+     * @return false if the window was not sent to every recipient and must be sent again
+     */
+    private boolean sendDigest(Instant from, Instant to) {
+        Page<Book> books;
+        // replicas may not have the books of the window yet
+        ReadYourWrites.begin(true);
+        try {
+            books = bookRepo.findNewestAddedBetween(from, to, maxBooks);
+        } finally {
+            ReadYourWrites.end();
+        }
+
+        if (books.getItems().isEmpty()) {
+            log.debug("No new books between {} and {}", from, to);
+            return true;
+        }
+        if (!emailService.getObject().isMailConfigured()) {
+            log.warn("Email is not configured. Digest of {} new books will be sent again.", books.getTotal());
+            return false;
+        }
+
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try {
+            for (String locale : subscriptionRepository.findDistinctLocales()) {
+                RenderedEmail email = emailService.getObject().renderNewBooksDigest(books.getItems(), books.getTotal(),
+                        Locale.forLanguageTag(locale));
+                sendToSubscribers(locale, email, sent, failed);
+            }
+            // Wait for the last chunks
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Digest sending interrupted, the window will be sent again");
+            return false;
+        }
+
+        log.info("New book digest ({} books) sent to {} recipients, {} failed", books.getTotal(), sent.get(), failed.get());
+        if (failed.get() > 0) {
+            log.warn("Digest failed for {} recipients, the window will be sent again", failed.get());
+            return false;
+        }
+        return true;
+    }
+
+    private void sendToSubscribers(String locale, RenderedEmail email, AtomicInteger sent, AtomicInteger failed)
+            throws InterruptedException {
+        long afterId = 0;
+        List<Recipient> chunk;
+        while (!(chunk = subscriptionRepository.findRecipients(locale, afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+            afterId = chunk.get(chunk.size() - 1).getId();
+            List<String> recipients = chunk.stream().map(Recipient::getEmail).toList();
+
+            inFlight.acquire();
+            try {
+                digestMailExecutor.execute(() -> sendChunk(email, recipients, sent, failed));
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+    }
+
+    private void sendChunk(RenderedEmail email, List<String> recipients, AtomicInteger sent, AtomicInteger failed) {
+        try {
+            rateLimiter.acquire();
+            emailService.getObject().sendToRecipients(email, recipients);
+            sent.addAndGet(recipients.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.addAndGet(recipients.size());
+        } catch (Exception e) {
+            log.error("Failed to send digest to {} recipients", recipients.size(), e);
+            failed.addAndGet(recipients.size());
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Spaces out sends so that no more than the given number of messages start per second.
+     */
+    static final class RateLimiter {
+        private final long intervalNanos;
+        private long nextSlot = System.nanoTime();
+
+        RateLimiter(int permitsPerSecond) {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, permitsPerSecond);
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (nextSlot < now) {
+                    nextSlot = now;
+                }
+                waitNanos = nextSlot - now;
+                nextSlot += intervalNanos;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
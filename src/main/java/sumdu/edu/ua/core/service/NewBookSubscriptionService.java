@@ -0,0 +1,69 @@
+package sumdu.edu.ua.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sumdu.edu.ua.persistence.entity.NewBookSubscriptionEntity;
+import sumdu.edu.ua.persistence.entity.UserEntity;
+import sumdu.edu.ua.persistence.repository.NewBookSubscriptionRepository;
+import sumdu.edu.ua.persistence.repository.UserRepository;
+
+import java.util.Locale;
+
+/**
+ * Manages user subscriptions to the new books digest.
+ */
+@Service
+public class NewBookSubscriptionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewBookSubscriptionService.class);
+
+    private final NewBookSubscriptionRepository subscriptionRepository;
+    private final UserRepository userRepository;
+    private final ContentVersions versions;
+
+    @Autowired
+    public NewBookSubscriptionService(NewBookSubscriptionRepository subscriptionRepository,
+                                      UserRepository userRepository,
+                                      ContentVersions versions) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.userRepository = userRepository;
+        this.versions = versions;
+    }
+
+    /**
+     * Subscribes the user to the new books digest or updates the digest locale of an existing subscription.
+     *
+     * @param email user's email
+     * @param locale locale the digest is rendered in
+     * @throws IllegalArgumentException if the user does not exist
+     */
+    @Transactional
+    public void subscribe(String email, Locale locale) {
+        UserEntity user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + email));
+
+        NewBookSubscriptionEntity subscription = subscriptionRepository.findByUserEmail(email)
+                .orElseGet(() -> new NewBookSubscriptionEntity(user, null));
+        subscription.setLocale(locale.toLanguageTag());
+        subscriptionRepository.save(subscription);
+        versions.subscriptionsChanged();
+        log.info("User {} subscribed to new book digest ({})", email, subscription.getLocale());
+    }
+
+    @Transactional
+    public void unsubscribe(String email) {
+        subscriptionRepository.findByUserEmail(email).ifPresent(subscription -> {
+            subscriptionRepository.delete(subscription);
+            versions.subscriptionsChanged();
+            log.info("User {} unsubscribed from new book digest", email);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isSubscribed(String email) {
+        return subscriptionRepository.findByUserEmail(email).isPresent();
+    }
+}
@@ -2,11 +2,13 @@ package sumdu.edu.ua.core.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sumdu.edu.ua.persistence.entity.UserEntity;
+import sumdu.edu.ua.persistence.jdbc.ChangeLog;
 import sumdu.edu.ua.persistence.repository.UserRepository;
 
 import java.security.SecureRandom;
@@ -19,14 +21,17 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final ObjectProvider<EmailService> emailService;
+    private final ChangeLog changeLog;
     private static final SecureRandom random = new SecureRandom();
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, EmailService emailService) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ObjectProvider<EmailService> emailService, ChangeLog changeLog) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.changeLog = changeLog;
     }
 
     @Transactional(readOnly = true)
@@ -74,11 +79,12 @@ public class UserService {
         newUser.setEnabled(false);
 
         UserEntity savedUser = userRepository.save(newUser);
+        changeLog.append(ChangeLog.Entity.USER, savedUser.getId());
         log.info("User registered successfully with email: {} and id: {}", 
                 savedUser.getEmail(), savedUser.getId());
 
         // Send confirmation email
-        boolean emailSent = emailService.sendConfirmationEmail(savedUser.getEmail(), 
+        boolean emailSent = emailService.getObject().sendConfirmationEmail(savedUser.getEmail(), 
                 savedUser.getFirstName() != null ? savedUser.getFirstName() : savedUser.getEmail(),
                 confirmationCode);
         
@@ -112,6 +118,7 @@ public class UserService {
         user.setEnabled(true);
         user.setConfirmationCode(null); // Clear confirmation code after successful confirmation
         userRepository.save(user);
+        changeLog.append(ChangeLog.Entity.USER, user.getId());
         
         log.info("Email confirmed successfully for user: {}", user.getEmail());
         return true;
@@ -147,7 +154,9 @@ public class UserService {
         UserEntity newAdmin = new UserEntity(email.trim(), encodedPassword, "ADMIN");
         newAdmin.setEnabled(true); // Admin accounts are enabled by default
 
-        return userRepository.save(newAdmin);
+        UserEntity savedAdmin = userRepository.save(newAdmin);
+        changeLog.append(ChangeLog.Entity.USER, savedAdmin.getId());
+        return savedAdmin;
     }
 }
 
@@ -0,0 +1,38 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * After a cache invalidation, {@link ReadWriteRoutingDataSource} sends every read to the primary for
+ * {@code app.datasource.refill-from-primary}. The caches then refill with the change, not from a replica that
+ * has not replayed it yet. {@link sumdu.edu.ua.core.service.ContentVersions} opens the window on every version
+ * change, whether the change was made here or polled from another instance.
+ */
+@Component
+public class CacheRefillWindow {
+
+    private final long windowNanos;
+    private final AtomicLong openUntilNanos = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    public CacheRefillWindow(@Value("${app.datasource.refill-from-primary:PT5S}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void open() {
+        long until = System.nanoTime() + windowNanos;
+        openUntilNanos.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    /**
+     * @return whether reads must go to the primary
+     */
+    public boolean isOpen() {
+        return System.nanoTime() - openUntilNanos.get() < 0;
+    }
+}
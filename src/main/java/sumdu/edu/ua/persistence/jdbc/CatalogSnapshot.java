@@ -0,0 +1,273 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import sumdu.edu.ua.core.domain.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped file with the books of the catalog in id order, written by {@link Writer}.
+ *
+ * The layout is columnar. Titles and authors are each stored once in a dictionary and referenced by index,
+ * ids as variable-length deltas to the previous id. All numbers are big-endian:
+ * <pre>
+ * int magic "BKSN", int version, long takenAt (epoch millis), int count
+ * title dictionary, author dictionary: int size, int[size + 1] offsets, UTF-8 bytes
+ * int length, id deltas as unsigned LEB128
+ * int[count] title indexes, int[count] author indexes, int[count] years
+ * </pre>
+ * Strings are only decoded when a book is read.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x424B534E;
+    static final int VERSION = 1;
+
+    private final Instant takenAt;
+    private final long[] ids;
+    private final Dictionary titles;
+    private final Dictionary authors;
+    private final ByteBuffer titleColumn;
+    private final ByteBuffer authorColumn;
+    private final ByteBuffer yearColumn;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + version);
+            }
+            this.takenAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            this.titles = new Dictionary(buffer);
+            this.authors = new Dictionary(buffer);
+
+            ByteBuffer deltas = slice(buffer, buffer.getInt());
+            this.ids = new long[count];
+            long id = 0;
+            for (int i = 0; i < count; i++) {
+                id += readVarLong(deltas);
+                ids[i] = id;
+            }
+            this.titleColumn = slice(buffer, 4L * count);
+            this.authorColumn = slice(buffer, 4L * count);
+            this.yearColumn = slice(buffer, 4L * count);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Maps a snapshot file into memory; the mapping stays valid after the file is replaced.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot of this version
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot larger than 2 GB: " + file);
+            }
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return when the books were read; books added after this may be missing
+     */
+    public Instant takenAt() {
+        return takenAt;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return the largest id in the snapshot, or 0 if it is empty
+     */
+    public long maxId() {
+        return ids.length == 0 ? 0 : ids[ids.length - 1];
+    }
+
+    /**
+     * @param index position in id order, from 0
+     */
+    public Book book(int index) {
+        return new Book(ids[index],
+                titles.get(titleColumn.getInt(4 * index)),
+                authors.get(authorColumn.getInt(4 * index)),
+                yearColumn.getInt(4 * index));
+    }
+
+    /**
+     * @return up to {@code limit} books with the largest ids, newest first
+     */
+    public List<Book> newest(int limit) {
+        List<Book> books = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = ids.length - 1; i >= 0 && books.size() < limit; i--) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long length) {
+        ByteBuffer slice = buffer.slice(buffer.position(), Math.toIntExact(length));
+        buffer.position(buffer.position() + slice.limit());
+        return slice;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static final class Dictionary {
+        private final ByteBuffer offsets;
+        private final ByteBuffer bytes;
+
+        Dictionary(ByteBuffer buffer) {
+            int size = buffer.getInt();
+            this.offsets = slice(buffer, 4L * (size + 1));
+            this.bytes = slice(buffer, offsets.getInt(4 * size));
+        }
+
+        String get(int index) {
+            int start = offsets.getInt(4 * index);
+            byte[] utf8 = new byte[offsets.getInt(4 * index + 4) - start];
+            bytes.get(start, utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Collects books in ascending id order and writes them as a snapshot.
+     * Dictionaries and columns are kept in memory until {@link #writeTo}.
+     */
+    public static final class Writer {
+
+        private final DictionaryBuilder titles = new DictionaryBuilder();
+        private final DictionaryBuilder authors = new DictionaryBuilder();
+        private final ByteArrayOutputStream deltas = new ByteArrayOutputStream();
+        private int[] titleColumn = new int[1024];
+        private int[] authorColumn = new int[1024];
+        private int[] yearColumn = new int[1024];
+        private int count;
+        private long lastId;
+
+        /**
+         * @throws IllegalArgumentException if the id is not larger than the previous one
+         */
+        public void add(long id, String title, String author, int pubYear) {
+            if (id <= lastId) {
+                throw new IllegalArgumentException("Books must be added in ascending id order: " + id + " after " + lastId);
+            }
+            if (count == titleColumn.length) {
+                titleColumn = Arrays.copyOf(titleColumn, count * 2);
+                authorColumn = Arrays.copyOf(authorColumn, count * 2);
+                yearColumn = Arrays.copyOf(yearColumn, count * 2);
+            }
+            writeVarLong(id - lastId);
+            lastId = id;
+            titleColumn[count] = titles.indexOf(title);
+            authorColumn[count] = authors.indexOf(author);
+            yearColumn[count] = pubYear;
+            count++;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Writes to a temporary file next to {@code file} and moves it over {@code file}, so readers never
+         * see a partly written snapshot.
+         */
+        public void writeTo(Path file, Instant takenAt) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(takenAt.toEpochMilli());
+                    out.writeInt(count);
+                    titles.writeTo(out);
+                    authors.writeTo(out);
+                    out.writeInt(deltas.size());
+                    deltas.writeTo(out);
+                    for (int[] column : new int[][]{titleColumn, authorColumn, yearColumn}) {
+                        for (int i = 0; i < count; i++) {
+                            out.writeInt(column[i]);
+                        }
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7fL) != 0) {
+                deltas.write((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            deltas.write((int) value);
+        }
+    }
+
+    private static final class DictionaryBuilder {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int[] offsets = new int[1024];
+
+        int indexOf(String value) {
+            Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            int next = indexes.size();
+            if (next + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            bytes.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            offsets[next + 1] = bytes.size();
+            indexes.put(value, next);
+            return next;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            int size = indexes.size();
+            out.writeInt(size);
+            for (int i = 0; i <= size; i++) {
+                out.writeInt(offsets[i]);
+            }
+            bytes.writeTo(out);
+        }
+    }
+}
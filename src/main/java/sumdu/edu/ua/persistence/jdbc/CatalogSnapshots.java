@@ -0,0 +1,71 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Writes the catalog to a {@link CatalogSnapshot} file at {@code app.catalog-snapshot.path} every
+ * {@code app.catalog-snapshot.interval}, and opens it on startup. Books are read in one streamed query,
+ * from a replica if there is one.
+ */
+@Component
+@ConditionalOnExpression("!'${app.catalog-snapshot.path:}'.isBlank()")
+public class CatalogSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshots.class);
+
+    private final JdbcTemplate jdbc;
+    private final Path file;
+
+    @Autowired
+    public CatalogSnapshots(JdbcTemplate jdbc, @Value("${app.catalog-snapshot.path}") String file) {
+        this.jdbc = jdbc;
+        this.file = Path.of(file);
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.interval:PT10M}",
+               initialDelayString = "${app.catalog-snapshot.interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void write() throws IOException {
+        long started = System.nanoTime();
+        // taken before reading, so books committed while the query runs are replayed rather than lost
+        Instant takenAt = Instant.now();
+        CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer();
+        jdbc.query(con -> {
+            var statement = con.prepareStatement("SELECT id, title, author, pub_year FROM books ORDER BY id");
+            statement.setFetchSize(1000);
+            return statement;
+        }, (RowCallbackHandler) rs -> writer.add(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+        writer.writeTo(file, takenAt);
+        log.info("Wrote catalog snapshot of {} books ({} bytes) in {} ms", writer.size(), Files.size(file),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * @return the last written snapshot, or null if there is none or it cannot be read
+     */
+    public CatalogSnapshot open() {
+        try {
+            return CatalogSnapshot.open(file);
+        } catch (NoSuchFileException e) {
+            log.info("No catalog snapshot at {} yet", file);
+        } catch (IOException e) {
+            log.warn("Cannot read catalog snapshot {}: {}", file, e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The {@code change_log} table, through which instances sharing the database learn about each other's
+ * writes. Each write appends a row in its own transaction, so a row is visible exactly when the change is;
+ * {@link ChangeLogPoller} reads the rows of other instances and invalidates the caches they affect.
+ */
+@Component
+public class ChangeLog {
+
+    /**
+     * What changed; the row's {@code entity_id} is the id of the book, the number of books added together,
+     * the id of the book whose comments changed, or the id of the user.
+     */
+    public enum Entity { BOOK, BOOK_BATCH, COMMENTS, USER }
+
+    public record Change(long id, Entity entity, long entityId, String node) {
+    }
+
+    private static final RowMapper<Change> CHANGE = (rs, row) ->
+            new Change(rs.getLong(1), Entity.valueOf(rs.getString(2)), rs.getLong(3), rs.getString(4));
+
+    private final JdbcTemplate jdbc;
+    private final String node = UUID.randomUUID().toString();
+
+    @Autowired
+    public ChangeLog(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @return id of this instance, written with every change it appends
+     */
+    public String node() {
+        return node;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Entity entity, long entityId) {
+        jdbc.update("INSERT INTO change_log (entity, entity_id, node) VALUES (?, ?, ?)",
+                entity.name(), entityId, node);
+    }
+
+    /**
+     * @return up to {@code limit} changes with an id above {@code afterId}, oldest first
+     */
+    public List<Change> readAfter(long afterId, int limit) {
+        return jdbc.query("SELECT id, entity, entity_id, node FROM change_log WHERE id > ? ORDER BY id LIMIT ?",
+                CHANGE,
+                afterId, limit);
+    }
+
+    /**
+     * @return the changes with the given ids that exist, in id order
+     */
+    public List<Change> readIds(Collection<Long> ids) {
+        return jdbc.query("SELECT id, entity, entity_id, node FROM change_log WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(ids.size(), "?")) + ") ORDER BY id",
+                CHANGE,
+                ids.toArray());
+    }
+
+    public long lastId() {
+        Long id = jdbc.queryForObject("SELECT MAX(id) FROM change_log", Long.class);
+        return id == null ? 0 : id;
+    }
+
+    public int deleteOlderThan(Instant cutoff) {
+        return jdbc.update("DELETE FROM change_log WHERE changed_at < ?", Timestamp.from(cutoff));
+    }
+}
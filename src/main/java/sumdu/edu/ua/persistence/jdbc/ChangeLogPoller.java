@@ -0,0 +1,199 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sumdu.edu.ua.core.service.BookCache;
+import sumdu.edu.ua.core.service.ContentVersions;
+import sumdu.edu.ua.persistence.entity.BookEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies the changes other instances wrote to {@link ChangeLog} to the caches of this one: a new book
+ * is dropped from {@link BookCache} (which may hold its id as absent) and from the second-level and
+ * query caches, and bumps the catalog version; books added in bulk drop every id cached as absent instead.
+ * Changed comments bump the book's comment version, which also retires its cached fragments and entity tags.
+ * Users are not cached in process. Reads go to the primary while the caches refill, see {@link CacheRefillWindow}.
+ *
+ * Ids are assigned on insert but become visible on commit, so a smaller id may show up after a larger one.
+ * The watermark therefore stops below a missing id, and skips it once it has been missing for
+ * {@code app.change-log.gap-timeout}, e.g. after a rollback. Skipped ids are looked up again on every poll
+ * until {@code app.change-log.retention} has passed, so the change of a transaction that ran longer than the
+ * timeout is applied late rather than lost. Rows above the watermark are applied once.
+ *
+ * Polls hold a {@link ReentrantLock} rather than a monitor, since they run JDBC calls on virtual threads.
+ *
+ * Publishes {@code app.change-log.applied}.
+ */
+@Component
+public class ChangeLogPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogPoller.class);
+
+    /** Skipped ids looked up again; beyond this, the oldest are given up on. */
+    static final int MAX_SKIPPED = 1000;
+
+    private final ChangeLog changeLog;
+    private final BookCache bookCache;
+    private final ContentVersions versions;
+    private final CacheRefillWindow refillWindow;
+    private final Cache secondLevelCache;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+    private final LongAdder applied = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long watermark = -1;
+    private final TreeSet<Long> seenAboveWatermark = new TreeSet<>();
+    private long gapSinceNanos;
+    /** Skipped id to the time it was skipped. */
+    private final TreeMap<Long, Long> skipped = new TreeMap<>();
+
+    @Autowired
+    public ChangeLogPoller(ChangeLog changeLog,
+                           BookCache bookCache,
+                           ContentVersions versions,
+                           CacheRefillWindow refillWindow,
+                           EntityManagerFactory entityManagerFactory,
+                           MeterRegistry registry,
+                           @Value("${app.change-log.batch-size:500}") int batchSize,
+                           @Value("${app.change-log.gap-timeout:PT10S}") Duration gapTimeout,
+                           @Value("${app.change-log.retention:PT1H}") Duration retention) {
+        this.changeLog = changeLog;
+        this.bookCache = bookCache;
+        this.versions = versions;
+        this.refillWindow = refillWindow;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.retention = retention;
+
+        FunctionCounter.builder("app.change-log.applied", applied, LongAdder::sum)
+                .description("Changes of other instances applied to the caches").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.change-log.poll-interval:PT1S}")
+    public void poll() {
+        poll(System.nanoTime());
+    }
+
+    void poll(long nowNanos) {
+        lock.lock();
+        try {
+            if (watermark < 0) {
+                // changes committed before the first poll are already in what the caches will read
+                watermark = changeLog.lastId();
+                return;
+            }
+            for (ChangeLog.Change change : changeLog.readAfter(watermark, batchSize)) {
+                if (seenAboveWatermark.add(change.id()) && !change.node().equals(changeLog.node())) {
+                    apply(change);
+                }
+            }
+            advanceWatermark(nowNanos);
+            recheckSkipped(nowNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.change-log.prune-interval:PT10M}")
+    public void prune() {
+        int deleted = changeLog.deleteOlderThan(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Deleted {} change log rows older than {}", deleted, retention);
+        }
+    }
+
+    /**
+     * @return id up to which every change has been applied or given up on
+     */
+    long watermark() {
+        lock.lock();
+        try {
+            return watermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(ChangeLog.Change change) {
+        // before evicting, so no read in between refills the caches from a replica that lacks the change
+        refillWindow.open();
+        switch (change.entity()) {
+            case BOOK -> {
+                bookCache.evict(change.entityId());
+                secondLevelCache.evictEntityData(BookEntity.class, change.entityId());
+                secondLevelCache.evictDefaultQueryRegion();
+                versions.catalogChanged();
+            }
+            case BOOK_BATCH -> {
+                bookCache.evictAbsent();
+                secondLevelCache.evictDefaultQueryRegion();
+                versions.catalogChanged();
+            }
+            case COMMENTS -> versions.commentsChanged(change.entityId());
+            case USER -> {
+                // nothing cached yet
+            }
+        }
+        applied.increment();
+    }
+
+    private void advanceWatermark(long now) {
+        while (!seenAboveWatermark.isEmpty()) {
+            long first = seenAboveWatermark.first();
+            if (first == watermark + 1) {
+                seenAboveWatermark.pollFirst();
+                watermark = first;
+                gapSinceNanos = 0;
+                continue;
+            }
+            if (gapSinceNanos == 0) {
+                gapSinceNanos = now;
+            } else if (now - gapSinceNanos > gapTimeoutNanos) {
+                log.debug("Change log ids {}..{} did not appear, skipping them", watermark + 1, first - 1);
+                for (long id = Math.max(watermark + 1, first - MAX_SKIPPED); id < first; id++) {
+                    skipped.put(id, now);
+                }
+                while (skipped.size() > MAX_SKIPPED) {
+                    log.warn("Giving up on change log id {}, changes it carries will not be applied",
+                            skipped.pollFirstEntry().getKey());
+                }
+                watermark = first - 1;
+                gapSinceNanos = 0;
+                continue;
+            }
+            return;
+        }
+    }
+
+    private void recheckSkipped(long now) {
+        skipped.values().removeIf(skippedAt -> now - skippedAt > retention.toNanos());
+        if (skipped.isEmpty()) {
+            return;
+        }
+        for (ChangeLog.Change change : changeLog.readIds(skipped.keySet())) {
+            skipped.remove(change.id());
+            if (!change.node().equals(changeLog.node())) {
+                log.debug("Change log id {} appeared after it was skipped", change.id());
+                apply(change);
+            }
+        }
+    }
+}
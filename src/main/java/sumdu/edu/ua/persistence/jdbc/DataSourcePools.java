@@ -0,0 +1,35 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * The connection pools of the primary and the replicas behind {@link ReadWriteRoutingDataSource}.
+ * A bean of its own, so the pools are closed with the context, but not a DataSource: statements are
+ * still timed once, on the routing DataSource.
+ */
+public class DataSourcePools implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+
+    public DataSourcePools(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
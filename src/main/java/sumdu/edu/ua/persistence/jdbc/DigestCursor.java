@@ -0,0 +1,64 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The {@code digest_cursor} row of the new books digest: the creation time up to which books have been sent,
+ * and the instance that holds the lease to send the next window. Instances sharing the database claim the
+ * lease before sending, so each window is sent by one of them; a lease left by a stopped instance expires.
+ */
+@Component
+public class DigestCursor {
+
+    private static final String NEW_BOOKS = "new_books";
+
+    private final JdbcTemplate jdbc;
+    private final String node;
+
+    @Autowired
+    public DigestCursor(JdbcTemplate jdbc, ChangeLog changeLog) {
+        this.jdbc = jdbc;
+        this.node = changeLog.node();
+    }
+
+    /**
+     * Takes the lease if it is free, expired or already held by this instance.
+     *
+     * @return the time up to which books have been sent, or null if another instance holds the lease
+     */
+    @Transactional
+    public Instant claim(Duration lease) {
+        Instant now = Instant.now();
+        int claimed = jdbc.update("UPDATE digest_cursor SET lease_owner = ?, lease_until = ? WHERE name = ? "
+                        + "AND (lease_until IS NULL OR lease_until < ? OR lease_owner = ?)",
+                node, Timestamp.from(now.plus(lease)), NEW_BOOKS, Timestamp.from(now), node);
+        if (claimed == 0) {
+            return null;
+        }
+        return jdbc.queryForObject("SELECT sent_until FROM digest_cursor WHERE name = ?", Timestamp.class, NEW_BOOKS)
+                .toInstant();
+    }
+
+    /**
+     * Records that books created before {@code sentUntil} have been sent and gives up the lease.
+     */
+    public void advance(Instant sentUntil) {
+        jdbc.update("UPDATE digest_cursor SET sent_until = ?, lease_owner = NULL, lease_until = NULL "
+                + "WHERE name = ? AND lease_owner = ?", Timestamp.from(sentUntil), NEW_BOOKS, node);
+    }
+
+    /**
+     * Gives up the lease without advancing, so the window is sent again by the next run.
+     */
+    public void release() {
+        jdbc.update("UPDATE digest_cursor SET lease_owner = NULL, lease_until = NULL WHERE name = ? AND lease_owner = ?",
+                NEW_BOOKS, node);
+    }
+}
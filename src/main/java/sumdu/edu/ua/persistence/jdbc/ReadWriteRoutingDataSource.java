@@ -0,0 +1,115 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections of read-only transactions from the replicas and all others from the primary.
+ * Threads pinned by {@link ReadYourWrites} read from the primary, and read-write transactions are recorded there.
+ * While the {@link CacheRefillWindow} is open after an invalidation, every thread reads from the primary.
+ *
+ * The transaction manager takes its connection before the transaction is marked read-only, so this must be
+ * wrapped in a {@code LazyConnectionDataSourceProxy}, which asks for the connection at the first statement.
+ * Replicas take turns; one that fails to hand out a connection is skipped for {@code retryAfter}, and reads
+ * go to the primary while no replica is available.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long retryAfterNanos;
+    private final CacheRefillWindow refillWindow;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration retryAfter,
+                                      CacheRefillWindow refillWindow) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.refillWindow = refillWindow;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!ReadYourWrites.pinned() && !refillWindow.isOpen()) {
+                Connection replica = replicaConnection(username, password);
+                if (replica != null) {
+                    return replica;
+                }
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReadYourWrites.recordWrite();
+        }
+        return connect(primary, username, password);
+    }
+
+    /**
+     * Reaches the primary pool, e.g. for pool metrics.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private Connection replicaConnection(String username, String password) {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            long now = System.nanoTime();
+            if (replica.down && now - replica.retryAtNanos < 0) {
+                continue;
+            }
+            try {
+                Connection connection = connect(replica.dataSource, username, password);
+                if (replica.down) {
+                    replica.down = false;
+                    log.info("Replica {} is available again", (start + i) % size);
+                }
+                return connection;
+            } catch (SQLException e) {
+                replica.retryAtNanos = now + retryAfterNanos;
+                replica.down = true;
+                log.warn("Replica {} is unavailable, reading from other databases: {}", (start + i) % size, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private static final class Replica {
+        final DataSource dataSource;
+        volatile boolean down;
+        volatile long retryAtNanos;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
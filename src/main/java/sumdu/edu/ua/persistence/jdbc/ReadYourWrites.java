@@ -0,0 +1,71 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+/**
+ * Read-your-writes for {@link ReadWriteRoutingDataSource}. Between {@link #begin(boolean)} and {@link #end()},
+ * a pinned thread reads from the primary even in read-only transactions, and read-write transactions on the
+ * thread are recorded, so that the caller can pin its next requests while the replicas may still lag behind.
+ * The web layer pins per HTTP session, see {@link sumdu.edu.ua.web.routing.ReadYourWritesFilter}.
+ *
+ * Kept in a static thread local like {@link RequestStatementCounter}; work handed to other threads shares
+ * the state of the submitting thread through {@link #propagate(Runnable)}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * @param pinned whether reads of the current thread must go to the primary
+     */
+    public static void begin(boolean pinned) {
+        STATE.set(new State(pinned));
+    }
+
+    /**
+     * @return whether a read-write transaction ran since {@link #begin(boolean)}
+     */
+    public static boolean end() {
+        State state = STATE.get();
+        STATE.remove();
+        return state != null && state.wrote;
+    }
+
+    /**
+     * @return the task, reading and recording writes with the state of the current thread
+     */
+    public static Runnable propagate(Runnable task) {
+        State state = STATE.get();
+        return () -> {
+            State previous = STATE.get();
+            STATE.set(state);
+            try {
+                task.run();
+            } finally {
+                STATE.set(previous);
+            }
+        };
+    }
+
+    static boolean pinned() {
+        State state = STATE.get();
+        return state != null && state.pinned;
+    }
+
+    static void recordWrite() {
+        State state = STATE.get();
+        if (state != null) {
+            state.wrote = true;
+        }
+    }
+
+    private static final class State {
+        final boolean pinned;
+        volatile boolean wrote;
+
+        State(boolean pinned) {
+            this.pinned = pinned;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts SQL statements prepared by Hibernate on the current thread.
+ * Registered through {@code hibernate.session_factory.statement_inspector}, so Hibernate creates
+ * the instance itself and the counter is kept in a static thread local. Work handed to other threads
+ * counts towards the request through {@link #propagate(Runnable)}.
+ */
+public class RequestStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    /**
+     * Resets the counter of the current thread.
+     */
+    public static void reset() {
+        COUNT.get().set(0);
+    }
+
+    /**
+     * @return number of statements prepared on the current thread, or by tasks it propagated to, since the
+     *         last {@link #reset()}
+     */
+    public static int current() {
+        return COUNT.get().get();
+    }
+
+    /**
+     * @return the task, counting its statements on the counter of the current thread
+     */
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger counter = COUNT.get();
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(counter);
+            try {
+                task.run();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL text so that statements differing only in literal values share one fingerprint.
+ * String and numeric literals become {@code ?}, whitespace is collapsed and {@code IN (?, ?, ...)}
+ * lists of any length become {@code IN (?+)}.
+ */
+public final class SqlFingerprint {
+
+    private static final int CACHE_LIMIT = 2048;
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, \\?)+\\)");
+
+    /** Hibernate prepares a small, fixed set of statements, so most lookups are cache hits. */
+    private static final ConcurrentHashMap<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    /**
+     * @param sql statement text as sent to the driver
+     * @return normalized statement text
+     */
+    public static String of(String sql) {
+        String cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String fingerprint = normalize(sql);
+        if (CACHE.size() < CACHE_LIMIT) {
+            CACHE.putIfAbsent(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i = skipStringLiteral(sql, i + 1);
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && i < n) {
+                    out.append(' ');
+                }
+            } else if (Character.isDigit(c) && !endsWithIdentifier(out)) {
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return PARAMETER_LIST.matcher(out).replaceAll("(?+)");
+    }
+
+    private static int skipStringLiteral(String sql, int i) {
+        int n = sql.length();
+        while (i < n) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return n;
+    }
+
+    private static boolean endsWithIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+}
@@ -0,0 +1,128 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory table of executed SQL statements grouped by {@link SqlFingerprint}, filled by
+ * {@link TimedDataSource}. Replaces {@code spring.jpa.show-sql}: a statement is logged only when
+ * it is slower than {@code app.instrumentation.sql.slow-threshold} or picked by
+ * {@code app.instrumentation.sql.log-sample-rate}.
+ */
+@Component
+public class SqlStatementStats implements StatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementStats.class);
+
+    /** Fingerprints beyond this limit are counted under {@link #OTHER}. */
+    static final int MAX_FINGERPRINTS = 500;
+    static final String OTHER = "<other>";
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long slowThresholdNanos;
+    private final double logSampleRate;
+
+    public SqlStatementStats(@Value("${app.instrumentation.sql.slow-threshold:200ms}") Duration slowThreshold,
+                             @Value("${app.instrumentation.sql.log-sample-rate:0}") double logSampleRate) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    public void statementExecuted(String sql, long startNanos, long durationNanos, boolean failed) {
+        record(sql, durationNanos, failed);
+    }
+
+    /**
+     * Records one statement execution.
+     *
+     * @param sql statement text
+     * @param nanos execution time
+     * @param failed whether the driver threw
+     */
+    public void record(String sql, long nanos, boolean failed) {
+        String fingerprint = SqlFingerprint.of(sql);
+        entryFor(fingerprint).add(nanos, failed);
+
+        if (nanos > slowThresholdNanos) {
+            log.warn("Slow SQL ({} ms{}): {}", nanos / 1_000_000, failed ? ", failed" : "", sql);
+        } else if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.info("Sampled SQL ({} us): {}", nanos / 1_000, sql);
+        }
+    }
+
+    /**
+     * @param limit maximum number of rows
+     * @param order ordering of the rows, most expensive first
+     * @return point-in-time copies of the top fingerprints
+     */
+    public List<Snapshot> top(int limit, Comparator<Snapshot> order) {
+        return entries.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Clears all recorded fingerprints.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    private Entry entryFor(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry != null) {
+            return entry;
+        }
+        if (entries.size() >= MAX_FINGERPRINTS) {
+            return entries.computeIfAbsent(OTHER, k -> new Entry());
+        }
+        return entries.computeIfAbsent(fingerprint, k -> new Entry());
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void add(long nanos, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (failed) {
+                failures.increment();
+            }
+        }
+
+        Snapshot snapshot(String fingerprint) {
+            return new Snapshot(fingerprint, count.sum(), failures.sum(), totalNanos.sum(), maxNanos.get());
+        }
+    }
+
+    /**
+     * Totals of one fingerprint.
+     */
+    public record Snapshot(String fingerprint, long count, long failures, long totalNanos, long maxNanos) {
+
+        public static final Comparator<Snapshot> BY_TOTAL = Comparator.comparingLong(Snapshot::totalNanos);
+        public static final Comparator<Snapshot> BY_MAX = Comparator.comparingLong(Snapshot::maxNanos);
+        public static final Comparator<Snapshot> BY_COUNT = Comparator.comparingLong(Snapshot::count);
+
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
+}
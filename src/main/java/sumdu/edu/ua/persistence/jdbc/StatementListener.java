@@ -0,0 +1,16 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+/**
+ * Receives every statement execution timed by {@link TimedDataSource}.
+ * Called on the executing thread, so implementations must be cheap.
+ */
+public interface StatementListener {
+
+    /**
+     * @param sql statement text
+     * @param startNanos {@link System#nanoTime()} before execution
+     * @param durationNanos execution time
+     * @param failed whether the driver threw
+     */
+    void statementExecuted(String sql, long startNanos, long durationNanos, boolean failed);
+}
@@ -1,7 +1,11 @@
 package sumdu.edu.ua.persistence.jpa;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,8 +14,10 @@ import sumdu.edu.ua.core.domain.Page;
 import sumdu.edu.ua.core.domain.PageRequest;
 import sumdu.edu.ua.core.port.CatalogRepositoryPort;
 import sumdu.edu.ua.persistence.entity.BookEntity;
+import sumdu.edu.ua.persistence.jdbc.ChangeLog;
 import sumdu.edu.ua.persistence.repository.BookRepository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,50 +26,36 @@ import java.util.stream.Collectors;
 public class JpaBookRepository implements CatalogRepositoryPort {
 
     private final BookRepository bookRepository;
+    private final ChangeLog changeLog;
+    private final EntityManager entityManager;
 
     @Autowired
-    public JpaBookRepository(BookRepository bookRepository) {
+    public JpaBookRepository(BookRepository bookRepository, ChangeLog changeLog, EntityManager entityManager) {
         this.bookRepository = bookRepository;
+        this.changeLog = changeLog;
+        this.entityManager = entityManager;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Book> search(String q, PageRequest request) {
-        List<BookEntity> allBooks = bookRepository.findAll();
-        
-        List<BookEntity> filtered = allBooks.stream()
-            .filter(book -> {
-                if (q == null || q.isBlank()) {
-                    return true;
-                }
-                String lowerQ = q.toLowerCase();
-                return book.getTitle().toLowerCase().contains(lowerQ) ||
-                       book.getAuthor().toLowerCase().contains(lowerQ);
-            })
-            .collect(Collectors.toList());
-
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
         String sortBy = request.getSortBy();
         if (sortBy != null) {
-            Sort sort = Sort.by(request.isSortDesc() ? Sort.Direction.DESC : Sort.Direction.ASC, 
-                               mapSortField(sortBy));
-            filtered.sort((a, b) -> {
-                Comparable valA = getSortValue(a, sortBy);
-                Comparable valB = getSortValue(b, sortBy);
-                int result = valA.compareTo(valB);
-                return request.isSortDesc() ? -result : result;
-            });
+            sort = Sort.by(request.isSortDesc() ? Sort.Direction.DESC : Sort.Direction.ASC, mapSortField(sortBy))
+                .and(sort);
         }
+        Pageable pageable = org.springframework.data.domain.PageRequest.of(request.getPage(), request.getSize(), sort);
 
-        int total = filtered.size();
-        int start = request.getPage() * request.getSize();
-        int end = Math.min(start + request.getSize(), total);
-        List<BookEntity> paged = start < total ? filtered.subList(start, end) : List.of();
+        org.springframework.data.domain.Page<BookEntity> page = q == null || q.isBlank()
+            ? bookRepository.findAll(pageable)
+            : bookRepository.findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(q, q, pageable);
 
-        List<Book> books = paged.stream()
+        List<Book> books = page.getContent().stream()
             .map(this::toDomain)
             .collect(Collectors.toList());
 
-        return new Page<>(books, request, total);
+        return new Page<>(books, request, page.getTotalElements());
     }
 
     @Override
@@ -79,9 +71,55 @@ public class JpaBookRepository implements CatalogRepositoryPort {
     public Book add(String title, String author, int pubYear) {
         BookEntity entity = new BookEntity(title, author, pubYear);
         BookEntity saved = bookRepository.save(entity);
+        changeLog.append(ChangeLog.Entity.BOOK, saved.getId());
         return toDomain(saved);
     }
 
+    @Override
+    @Transactional
+    public List<Book> addAll(List<Book> books) {
+        // bulk-added books stay out of the second-level cache, where they would push out the books being read
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        List<BookEntity> saved = bookRepository.saveAll(books.stream()
+            .map(book -> new BookEntity(book.getTitle(), book.getAuthor(), book.getPubYear()))
+            .collect(Collectors.toList()));
+        changeLog.append(ChangeLog.Entity.BOOK_BATCH, saved.size());
+        return saved.stream()
+            .map(this::toDomain)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Book> findNewestAddedBetween(Instant from, Instant to, int limit) {
+        Pageable newest = org.springframework.data.domain.PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "id"));
+        org.springframework.data.domain.Page<BookEntity> page =
+            bookRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(from, to, newest);
+        return new Page<>(
+            page.getContent().stream().map(this::toDomain).collect(Collectors.toList()),
+            new PageRequest(0, limit),
+            page.getTotalElements()
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> findRecent(int limit) {
+        Pageable newest = org.springframework.data.domain.PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "id"));
+        return bookRepository.findAll(newest).getContent().stream()
+            .map(this::toDomain)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> findRecentAfter(long afterId, int limit) {
+        Pageable newest = org.springframework.data.domain.PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "id"));
+        return bookRepository.findByIdGreaterThan(afterId, newest).stream()
+            .map(this::toDomain)
+            .collect(Collectors.toList());
+    }
+
     private Book toDomain(BookEntity entity) {
         return new Book(entity.getId(), entity.getTitle(), entity.getAuthor(), entity.getPubYear());
     }
@@ -96,17 +134,5 @@ public class JpaBookRepository implements CatalogRepositoryPort {
             default: return "id";
         }
     }
-
-    @SuppressWarnings("unchecked")
-    private Comparable getSortValue(BookEntity book, String sortBy) {
-        if (sortBy == null) return book.getId();
-        switch (sortBy.toLowerCase()) {
-            case "title": return book.getTitle();
-            case "author": return book.getAuthor();
-            case "year":
-            case "pub_year": return book.getPubYear();
-            default: return book.getId();
-        }
-    }
 }
 
@@ -1,22 +1,27 @@
 package sumdu.edu.ua.persistence.jpa;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import sumdu.edu.ua.core.domain.Comment;
+import sumdu.edu.ua.core.exception.BookNotFoundException;
 import sumdu.edu.ua.core.domain.Page;
 import sumdu.edu.ua.core.domain.PageRequest;
 import sumdu.edu.ua.core.port.CommentRepositoryPort;
 import sumdu.edu.ua.persistence.entity.BookEntity;
 import sumdu.edu.ua.persistence.entity.CommentEntity;
 import sumdu.edu.ua.persistence.entity.UserEntity;
+import sumdu.edu.ua.persistence.jdbc.ChangeLog;
 import sumdu.edu.ua.persistence.repository.BookRepository;
 import sumdu.edu.ua.persistence.repository.CommentRepository;
 import sumdu.edu.ua.persistence.repository.UserRepository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Repository
@@ -26,33 +31,47 @@ public class JpaCommentRepository implements CommentRepositoryPort {
     private final CommentRepository commentRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final ChangeLog changeLog;
 
     @Autowired
     public JpaCommentRepository(CommentRepository commentRepository,
                                 BookRepository bookRepository,
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                ChangeLog changeLog) {
         this.commentRepository = commentRepository;
         this.bookRepository = bookRepository;
         this.userRepository = userRepository;
+        this.changeLog = changeLog;
     }
 
     @Override
     @Transactional
     public void add(long bookId, String author, String text) {
-        BookEntity book = bookRepository.findById(bookId)
-            .orElseThrow(() -> new RuntimeException("Book not found: " + bookId));
-        
+        // callers check the book through the cached BookService, so only reference it here;
+        // the foreign key still rejects a book that does not exist
+        BookEntity book = bookRepository.getReferenceById(bookId);
+
         UserEntity user = userRepository.findByEmail(author)
             .orElseGet(() -> {
                 // Create a temporary user with email as identifier
                 // Note: This creates an unconfirmed user - in production you might want to handle this differently
                 UserEntity newUser = new UserEntity(author, "default", "USER");
                 newUser.setEnabled(true); // Enable for comments to work
-                return userRepository.save(newUser);
+                UserEntity saved = userRepository.save(newUser);
+                changeLog.append(ChangeLog.Entity.USER, saved.getId());
+                return saved;
             });
 
         CommentEntity comment = new CommentEntity(book, user, text);
-        commentRepository.save(comment);
+        try {
+            commentRepository.saveAndFlush(comment);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, "fk_comment_book")) {
+                throw new BookNotFoundException("Book not found: " + bookId);
+            }
+            throw e;
+        }
+        changeLog.append(ChangeLog.Entity.COMMENTS, bookId);
     }
 
     @Override
@@ -77,6 +96,22 @@ public class JpaCommentRepository implements CommentRepositoryPort {
         return new Page<>(comments, request, page.getTotalElements());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Comment> listItems(long bookId, String author, Instant since, PageRequest request) {
+        return commentRepository.findPageByBookIdAndFilters(bookId, author, since,
+                org.springframework.data.domain.PageRequest.of(request.getPage(), request.getSize()))
+            .stream()
+            .map(this::toDomain)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(long bookId, String author, Instant since) {
+        return commentRepository.countByBookIdAndFilters(bookId, author, since);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Comment findById(long bookId, long commentId) {
@@ -91,7 +126,10 @@ public class JpaCommentRepository implements CommentRepositoryPort {
     public void delete(long bookId, long commentId) {
         commentRepository.findById(commentId)
             .filter(c -> c.getBook().getId().equals(bookId))
-            .ifPresent(commentRepository::delete);
+            .ifPresent(comment -> {
+                commentRepository.delete(comment);
+                changeLog.append(ChangeLog.Entity.COMMENTS, bookId);
+            });
     }
 
     private Comment toDomain(CommentEntity entity) {
@@ -105,5 +143,10 @@ public class JpaCommentRepository implements CommentRepositoryPort {
             entity.getCreatedAt()
         );
     }
-}
 
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        return e.getCause() instanceof ConstraintViolationException violation
+            && violation.getConstraintName() != null
+            && violation.getConstraintName().toLowerCase(Locale.ROOT).startsWith(constraint);
+    }
+}
@@ -1,10 +1,30 @@
 package sumdu.edu.ua.persistence.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import sumdu.edu.ua.persistence.entity.BookEntity;
 
+import java.time.Instant;
+import java.util.List;
+
 @Repository
 public interface BookRepository extends JpaRepository<BookEntity, Long> {
-}
+    Page<BookEntity> findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(Instant from, Instant to, Pageable pageable);
+
+    List<BookEntity> findByIdGreaterThan(long id, Pageable pageable);
 
+    // catalog pages and searches go through the query cache, see application.conf
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Page<BookEntity> findAll(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Page<BookEntity> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author,
+                                                                              Pageable pageable);
+}
@@ -2,6 +2,7 @@ package sumdu.edu.ua.persistence.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,16 +14,37 @@ import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
+
+    String BOOK_AND_FILTERS = "c.book.id = :bookId " +
+            "AND (:author IS NULL OR :author = '' OR c.user.email LIKE CONCAT('%', :author, '%')) " +
+            "AND (:since IS NULL OR c.createdAt >= :since)";
+
+    @EntityGraph(attributePaths = {"book", "user"})
     List<CommentEntity> findByUserId(Long userId);
 
-    @Query("SELECT c FROM CommentEntity c WHERE c.book.id = :bookId " +
-           "AND (:author IS NULL OR :author = '' OR c.user.email LIKE CONCAT('%', :author, '%')) " +
-           "AND (:since IS NULL OR c.createdAt >= :since) " +
-           "ORDER BY c.createdAt DESC")
+    // all comments share one book, which the lazy proxies load from the second-level cache; fetching
+    // it with every row would resolve the same cached book once per row
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT c FROM CommentEntity c WHERE " + BOOK_AND_FILTERS + " ORDER BY c.createdAt DESC")
     Page<CommentEntity> findByBookIdAndFilters(@Param("bookId") Long bookId,
                                                 @Param("author") String author,
                                                 @Param("since") Instant since,
                                                 Pageable pageable);
+
+    /**
+     * Page of {@link #findByBookIdAndFilters} without the count query.
+     */
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT c FROM CommentEntity c WHERE " + BOOK_AND_FILTERS + " ORDER BY c.createdAt DESC")
+    List<CommentEntity> findPageByBookIdAndFilters(@Param("bookId") Long bookId,
+                                                   @Param("author") String author,
+                                                   @Param("since") Instant since,
+                                                   Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM CommentEntity c WHERE " + BOOK_AND_FILTERS)
+    long countByBookIdAndFilters(@Param("bookId") Long bookId,
+                                 @Param("author") String author,
+                                 @Param("since") Instant since);
 }
 
 
@@ -0,0 +1,36 @@
+package sumdu.edu.ua.persistence.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sumdu.edu.ua.persistence.entity.NewBookSubscriptionEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NewBookSubscriptionRepository extends JpaRepository<NewBookSubscriptionEntity, Long> {
+
+    Optional<NewBookSubscriptionEntity> findByUserEmail(String email);
+
+    @Query("SELECT DISTINCT s.locale FROM NewBookSubscriptionEntity s")
+    List<String> findDistinctLocales();
+
+    /**
+     * Keyset-paged recipients of one locale: returns up to {@code pageable.getPageSize()}
+     * enabled subscribers with id greater than {@code afterId}, ordered by id.
+     */
+    @Query("SELECT s.id AS id, u.email AS email FROM NewBookSubscriptionEntity s JOIN s.user u " +
+           "WHERE s.locale = :locale AND s.id > :afterId AND u.enabled = true " +
+           "ORDER BY s.id")
+    List<Recipient> findRecipients(@Param("locale") String locale,
+                                   @Param("afterId") long afterId,
+                                   Pageable pageable);
+
+    interface Recipient {
+        Long getId();
+        String getEmail();
+    }
+}
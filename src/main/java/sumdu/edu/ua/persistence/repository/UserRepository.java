@@ -9,6 +9,7 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
+    boolean existsByEmail(String email);
     Optional<UserEntity> findByConfirmationCode(String confirmationCode);
 }
 
@@ -0,0 +1,115 @@
+package sumdu.edu.ua.web.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.core.service.BookService;
+import sumdu.edu.ua.web.jfr.OperationEvent;
+import sumdu.edu.ua.web.jfr.RepositoryCallEvent;
+import sumdu.edu.ua.web.jfr.ServiceCallEvent;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits JFR events around repository port and book/comment service calls.
+ * Event fields are filled only when the event passes its JFR enablement and threshold
+ * settings, so a disabled or filtered event costs an allocation and two clock reads.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.instrumentation.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrEventAspect {
+
+    private final Map<Method, ArgumentLayout> layouts = new ConcurrentHashMap<>();
+
+    @Around("execution(* sumdu.edu.ua.core.port.CatalogRepositoryPort+.*(..)) || " +
+            "execution(* sumdu.edu.ua.core.port.CommentRepositoryPort+.*(..))")
+    public Object recordRepositoryCall(ProceedingJoinPoint pjp) throws Throwable {
+        return record(pjp, new RepositoryCallEvent());
+    }
+
+    @Around("execution(* sumdu.edu.ua.core.service.BookService.*(..)) || " +
+            "execution(* sumdu.edu.ua.core.service.CommentService.*(..))")
+    public Object recordServiceCall(ProceedingJoinPoint pjp) throws Throwable {
+        return record(pjp, new ServiceCallEvent());
+    }
+
+    private Object record(ProceedingJoinPoint pjp, OperationEvent event) throws Throwable {
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = pjp.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                fill(event, pjp, result, failed);
+                event.commit();
+            }
+        }
+    }
+
+    private void fill(OperationEvent event, ProceedingJoinPoint pjp, Object result, boolean failed) {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        ArgumentLayout layout = layouts.computeIfAbsent(method, m -> ArgumentLayout.of(pjp.getTarget().getClass(), m));
+        Object[] args = pjp.getArgs();
+
+        event.operation = layout.operation;
+        event.failed = failed;
+        if (layout.bookIdIndex >= 0 && args[layout.bookIdIndex] instanceof Number id) {
+            event.bookId = id.longValue();
+        }
+        if (layout.queryIndex >= 0 && args[layout.queryIndex] instanceof String query) {
+            event.queryLength = query.length();
+        }
+        if (!failed && method.getReturnType() != void.class) {
+            event.rows = rowsOf(result);
+        }
+    }
+
+    private static int rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Page<?> page) {
+            return page.getItems().size();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return 1;
+    }
+
+    /**
+     * Positions of the book id and query text arguments of a method, resolved once by parameter name.
+     */
+    private record ArgumentLayout(String operation, int bookIdIndex, int queryIndex) {
+
+        static ArgumentLayout of(Class<?> type, Method method) {
+            boolean bookOwner = CatalogRepositoryPort.class.isAssignableFrom(type)
+                    || BookService.class.isAssignableFrom(type);
+            int bookIdIndex = -1;
+            int queryIndex = -1;
+            var parameters = method.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                String name = parameters[i].getName();
+                if (name.equals("bookId") || (bookOwner && name.equals("id"))) {
+                    bookIdIndex = i;
+                } else if ((name.equals("query") || name.equals("q")) && parameters[i].getType() == String.class) {
+                    queryIndex = i;
+                }
+            }
+            return new ArgumentLayout(type.getSimpleName() + "." + method.getName(), bookIdIndex, queryIndex);
+        }
+    }
+}
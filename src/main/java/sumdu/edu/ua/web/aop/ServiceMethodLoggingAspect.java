@@ -3,12 +3,23 @@ package sumdu.edu.ua.web.aop;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import sumdu.edu.ua.web.metrics.LatencyHistogram;
+import sumdu.edu.ua.web.metrics.ServiceMethodMetrics;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Aspect for measuring execution time of all service layer methods.
+ * Every call is recorded into a per-method {@link LatencyHistogram}; only calls slower than
+ * {@code app.instrumentation.service-methods.slow-threshold} are logged.
  */
 @Aspect
 @Component
@@ -16,24 +27,47 @@ public class ServiceMethodLoggingAspect {
 
     private static final Logger log = LoggerFactory.getLogger(ServiceMethodLoggingAspect.class);
 
-    @Around("execution(* sumdu.edu.ua.core.service..*(..))")
-    public Object logServiceMethodExecution(ProceedingJoinPoint pjp) throws Throwable {
-        String className = pjp.getTarget().getClass().getSimpleName();
-        String methodName = pjp.getSignature().getName();
-        long start = System.currentTimeMillis();
+    private final ServiceMethodMetrics metrics;
+    private final long slowThresholdNanos;
+    private final Map<Method, NamedHistogram> histograms = new ConcurrentHashMap<>();
 
-        log.debug("Entering {}.{}()", className, methodName);
+    public ServiceMethodLoggingAspect(ServiceMethodMetrics metrics,
+                                      @Value("${app.instrumentation.service-methods.slow-threshold:500ms}") Duration slowThreshold) {
+        this.metrics = metrics;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
 
+    @Around("execution(* sumdu.edu.ua.core.service..*(..))")
+    public Object logServiceMethodExecution(ProceedingJoinPoint pjp) throws Throwable {
+        NamedHistogram histogram = histogramFor(pjp);
+        long start = System.nanoTime();
+        boolean failed = false;
         try {
-            Object result = pjp.proceed();
-            long time = System.currentTimeMillis() - start;
-            log.info("{}.{}() executed in {} ms", className, methodName, time);
-            return result;
+            return pjp.proceed();
         } catch (Exception ex) {
-            long time = System.currentTimeMillis() - start;
-            log.warn("{}.{}() failed in {} ms: {}", className, methodName, time, ex.getMessage());
+            failed = true;
+            if (log.isDebugEnabled()) {
+                log.debug("{}() failed: {}", histogram.name, ex.getMessage());
+            }
             throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            histogram.histogram.record(elapsed);
+            if (elapsed > slowThresholdNanos) {
+                log.warn("Slow call: {}() {} in {} ms", histogram.name, failed ? "failed" : "finished",
+                        elapsed / 1_000_000);
+            }
         }
     }
-}
 
+    private NamedHistogram histogramFor(ProceedingJoinPoint pjp) {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        return histograms.computeIfAbsent(method, m -> {
+            String name = pjp.getTarget().getClass().getSimpleName() + "." + m.getName();
+            return new NamedHistogram(name, metrics.histogram(name));
+        });
+    }
+
+    private record NamedHistogram(String name, LatencyHistogram histogram) {
+    }
+}
@@ -0,0 +1,50 @@
+package sumdu.edu.ua.web.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import sumdu.edu.ua.web.tracing.Span;
+import sumdu.edu.ua.web.tracing.Tracer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds a span for every service method and repository port call of a sampled request.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final Tracer tracer;
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(* sumdu.edu.ua.core.service..*(..)) || " +
+            "execution(* sumdu.edu.ua.core.port.CatalogRepositoryPort+.*(..)) || " +
+            "execution(* sumdu.edu.ua.core.port.CommentRepositoryPort+.*(..))")
+    public Object trace(ProceedingJoinPoint pjp) throws Throwable {
+        if (tracer.current() == null) {
+            return pjp.proceed();
+        }
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        String name = spanNames.computeIfAbsent(method,
+                m -> pjp.getTarget().getClass().getSimpleName() + "." + m.getName());
+        Span span = tracer.startSpan(name, Span.Kind.INTERNAL);
+        try {
+            return pjp.proceed();
+        } catch (Throwable e) {
+            span.markError();
+            span.attribute("exception.type", e.getClass().getName());
+            throw e;
+        } finally {
+            tracer.end(span);
+        }
+    }
+}
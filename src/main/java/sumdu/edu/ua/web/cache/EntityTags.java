@@ -0,0 +1,119 @@
+package sumdu.edu.ua.web.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import sumdu.edu.ua.core.service.ContentVersions;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Strong entity tags of the catalog and book endpoints, derived from {@link ContentVersions}, so that
+ * a matching {@code If-None-Match} is answered with 304 before any repository call.
+ *
+ * API responses are the same for every user and may be stored by shared caches. Thymeleaf pages also
+ * render the user, the locale and a CSRF token bound to the session, so their tags include a hash of
+ * those and the pages are only stored by the browser.
+ */
+@Component
+public class EntityTags {
+
+    private static final CacheControl PAGE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final ContentVersions versions;
+    private final CacheControl apiCacheControl;
+
+    @Autowired
+    public EntityTags(ContentVersions versions,
+                      @Value("${app.http-cache.api-shared-max-age:PT0S}") Duration apiSharedMaxAge) {
+        this.versions = versions;
+        // without a shared max-age, proxies store the response but revalidate every request, which keeps
+        // authorization on the server; with one, they serve it to any client until it expires
+        this.apiCacheControl = apiSharedMaxAge.isZero()
+                ? CacheControl.noCache().cachePublic()
+                : CacheControl.maxAge(Duration.ZERO).sMaxAge(apiSharedMaxAge).cachePublic();
+    }
+
+    /**
+     * For {@code GET /api/books}: tags the response and checks {@code If-None-Match}.
+     *
+     * @return true if the client's copy is current and the 304 response is complete
+     */
+    public boolean checkCatalog(ServletWebRequest request) {
+        return check(request, catalogTag(), apiCacheControl);
+    }
+
+    /**
+     * For {@code GET /api/books/{id}}, which shows the book with its comments.
+     */
+    public boolean checkBook(ServletWebRequest request, long bookId) {
+        return check(request, bookTag(bookId), apiCacheControl);
+    }
+
+    /**
+     * For the {@code /books} page, which also shows whether the user is subscribed to new books.
+     */
+    public boolean checkCatalogPage(ServletWebRequest request) {
+        return checkPage(request, catalogTag() + versions.subscriptions());
+    }
+
+    /**
+     * For the {@code /books/{bookId}} page.
+     */
+    public boolean checkBookPage(ServletWebRequest request, long bookId) {
+        return checkPage(request, bookTag(bookId));
+    }
+
+    private String catalogTag() {
+        return "\"c." + versions.epoch() + "." + versions.catalog() + "\"";
+    }
+
+    private String bookTag(long bookId) {
+        return "\"b." + versions.epoch() + "." + bookId + "." + versions.comments(bookId) + "\"";
+    }
+
+    private static boolean checkPage(ServletWebRequest request, String dataTag) {
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request.getRequest());
+        if (flash != null && !flash.isEmpty()) {
+            // a page showing a one-off message after a redirect is neither tagged nor stored
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return false;
+        }
+        return check(request, pageTag(request.getRequest(), dataTag), PAGE_CACHE_CONTROL);
+    }
+
+    private static String pageTag(HttpServletRequest request, String dataTag) {
+        HttpSession session = request.getSession(false);
+        Principal principal = request.getUserPrincipal();
+        String viewer = (session != null ? session.getId() : "") + "|"
+                + (principal != null ? principal.getName() : "") + "|"
+                + RequestContextUtils.getLocale(request).toLanguageTag();
+        return "\"p." + digest(dataTag + "|" + viewer) + "\"";
+    }
+
+    private static boolean check(ServletWebRequest request, String tag, CacheControl cacheControl) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return request.checkNotModified(tag);
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
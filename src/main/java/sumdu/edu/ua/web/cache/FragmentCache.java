@@ -0,0 +1,219 @@
+package sumdu.edu.ua.web.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContext;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.context.webmvc.SpringWebMvcThymeleafRequestContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.spring6.naming.SpringContextVariableNames;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Rendered HTML of the parts of a page that are the same for many viewers, e.g. the book list, which
+ * the page template inserts unescaped. The page itself, with the header and anything else about the
+ * viewer, is still rendered per request.
+ *
+ * Callers build the key from the data version and the request parameters, and supply the model only
+ * on a miss, so a hit skips the repository calls as well as the rendering. The locale is added to the
+ * key here. A fragment must not depend on the viewer beyond what its key says, and must not contain
+ * CSRF tokens; callers render those fragments uncached by passing a null key.
+ *
+ * Once the total size of the entries exceeds {@code app.fragment-cache.max-size}, they are evicted by CLOCK
+ * (second chance) as in {@code BookCache}: a read takes no lock and only marks its entry as used, and the hand
+ * that walks the map on inserts is the only part behind a lock.
+ * Publishes {@code cache.gets} ({@code result=hit|miss}), {@code cache.evictions} and {@code cache.size}
+ * tagged {@code cache=page-fragments}.
+ */
+@Component
+public class FragmentCache {
+
+    private final SpringTemplateEngine templateEngine;
+    private final ApplicationContext applicationContext;
+    private final ServletContext servletContext;
+    private final JakartaServletWebApplication application;
+    private final long maxBytes;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final ReentrantLock handLock = new ReentrantLock();
+    private Iterator<Map.Entry<String, Entry>> hand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public FragmentCache(SpringTemplateEngine templateEngine,
+                         ApplicationContext applicationContext,
+                         ServletContext servletContext,
+                         MeterRegistry registry,
+                         @Value("${app.fragment-cache.max-size:16MB}") DataSize maxSize) {
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+        this.servletContext = servletContext;
+        this.application = JakartaServletWebApplication.buildApplication(servletContext);
+        this.maxBytes = maxSize.toBytes();
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", "page-fragments").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", "page-fragments").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", "page-fragments").register(registry);
+        Gauge.builder("cache.size", this, FragmentCache::size)
+                .tag("cache", "page-fragments").register(registry);
+    }
+
+    /**
+     * @param template template name, e.g. {@code fragments/catalog}
+     * @param fragment name of the {@code th:fragment} to render
+     * @param key everything the fragment depends on except the locale, or null to render without caching
+     * @param model the fragment's variables, read only on a miss
+     * @return the rendered HTML
+     */
+    public String render(String template, String fragment, String key,
+                         Supplier<Map<String, Object>> model, ServletWebRequest request) {
+        Locale locale = RequestContextUtils.getLocale(request.getRequest());
+        if (key == null) {
+            return process(template, fragment, locale, model.get(), request);
+        }
+        String fullKey = template + "::" + fragment + "|" + locale.toLanguageTag() + "|" + key;
+
+        String html = get(fullKey);
+        if (html != null) {
+            hits.increment();
+            return html;
+        }
+        misses.increment();
+        html = process(template, fragment, locale, model.get(), request);
+        put(fullKey, html);
+        return html;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Renders like {@code ThymeleafView}, with the Spring request context that form tags use for CSRF tokens.
+     */
+    private String process(String template, String fragment, Locale locale,
+                           Map<String, Object> model, ServletWebRequest request) {
+        HttpServletRequest servletRequest = request.getRequest();
+        HttpServletResponse response = withoutUrlRewriting(request.getResponse());
+        Map<String, Object> variables = new HashMap<>(model);
+        RequestContext requestContext = new RequestContext(servletRequest, response, servletContext, variables);
+        variables.put(SpringContextVariableNames.SPRING_REQUEST_CONTEXT, requestContext);
+        variables.put(SpringContextVariableNames.THYMELEAF_REQUEST_CONTEXT,
+                new SpringWebMvcThymeleafRequestContext(requestContext, servletRequest));
+        variables.put(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+
+        WebContext context = new WebContext(application.buildExchange(servletRequest, response), locale, variables);
+        return templateEngine.process(template, Set.of(fragment), context);
+    }
+
+    /**
+     * Links in a shared fragment must not carry the session id of the viewer who rendered it.
+     */
+    private static HttpServletResponse withoutUrlRewriting(HttpServletResponse response) {
+        return new HttpServletResponseWrapper(response) {
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+
+            @Override
+            public String encodeRedirectURL(String url) {
+                return url;
+            }
+        };
+    }
+
+    private String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.html;
+    }
+
+    private void put(String key, String html) {
+        long weight = weight(key, html);
+        if (weight > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(html, weight));
+        if (bytes.addAndGet(weight - (previous == null ? 0 : previous.weight)) > maxBytes) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        handLock.lock();
+        try {
+            // two rounds at most: the first may only clear reference flags
+            int maxSteps = 2 * (entries.size() + 1);
+            for (int steps = 0; bytes.get() > maxBytes && steps < maxSteps; steps++) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<String, Entry> candidate = hand.next();
+                Entry entry = candidate.getValue();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else if (entries.remove(candidate.getKey(), entry)) {
+                    bytes.addAndGet(-entry.weight);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            handLock.unlock();
+        }
+    }
+
+    private static long weight(String key, String html) {
+        // two bytes per char covers the Cyrillic text; Latin-1 strings take half of that
+        return 2L * (key.length() + html.length());
+    }
+
+    private static final class Entry {
+        final String html;
+        final long weight;
+        volatile boolean referenced;
+
+        Entry(String html, long weight) {
+            this.html = html;
+            this.weight = weight;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package sumdu.edu.ua.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +11,28 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.BookDetails;
+import sumdu.edu.ua.core.domain.BookImportReport;
 import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.exception.LookupTimeoutException;
 import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.core.service.BookDetailsService;
+import sumdu.edu.ua.core.service.BookImportReader;
+import sumdu.edu.ua.core.service.BookImportService;
+import sumdu.edu.ua.web.cache.EntityTags;
 import sumdu.edu.ua.web.http.ErrorResponse;
+import sumdu.edu.ua.web.limit.ConcurrencyLimitFilter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/books")
@@ -21,20 +42,30 @@ public class BooksApiController {
 
     private final sumdu.edu.ua.core.service.BookService bookService;
     private final CatalogRepositoryPort bookRepo;
-    private final sumdu.edu.ua.core.port.CommentRepositoryPort commentRepo;
+    private final BookDetailsService bookDetailsService;
+    private final EntityTags entityTags;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public BooksApiController(sumdu.edu.ua.core.service.BookService bookService,
                               CatalogRepositoryPort bookRepo,
-                              sumdu.edu.ua.core.port.CommentRepositoryPort commentRepo) {
+                              BookDetailsService bookDetailsService,
+                              EntityTags entityTags,
+                              BookImportService bookImportService,
+                              ObjectMapper objectMapper) {
         this.bookService = bookService;
         this.bookRepo = bookRepo;
-        this.commentRepo = commentRepo;
+        this.bookDetailsService = bookDetailsService;
+        this.entityTags = entityTags;
+        this.bookImportService = bookImportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * GET /api/books - Returns list of books in JSON format.
      * Implements pagination, search, and sorting.
+     * Answers 304 if the catalog has not changed since the client's ETag.
      * 
      * @param page page number (starts from 0, default: 0)
      * @param size page size (1..100, default: 10)
@@ -47,7 +78,8 @@ public class BooksApiController {
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
             @RequestParam(required = false) String q,
-            @RequestParam(required = false) String sort) {
+            @RequestParam(required = false) String sort,
+            ServletWebRequest webRequest) {
 
         if (page < 0) {
             return ResponseEntity.badRequest()
@@ -59,6 +91,9 @@ public class BooksApiController {
                     .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request",
                             "size must be between 1 and 100", "/api/books"));
         }
+        if (entityTags.checkCatalog(webRequest)) {
+            return null;
+        }
 
         try {
             PageRequest pageRequest = new PageRequest(page, size, sort, true);
@@ -74,27 +109,35 @@ public class BooksApiController {
 
     /**
      * GET /api/books/{id} - Returns a single book with comments in JSON format.
+     * Answers 304 if its comments have not changed since the client's ETag.
      * 
      * @param id book ID
      * @return ResponseEntity with BookWithCommentsResponse in JSON format
      */
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getBookById(@PathVariable long id) {
+    public ResponseEntity<?> getBookById(@PathVariable long id, ServletWebRequest webRequest) {
         try {
-            Book book = bookService.findById(id);
-            if (book == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), "Not Found",
-                                "Book not found with id: " + id, "/api/books/" + id));
+            // served by BookCache; a 404 is not tagged, since the id may be taken by a book added later
+            if (bookService.findById(id) == null) {
+                return notFound(id);
+            }
+            if (entityTags.checkBook(webRequest, id)) {
+                return null;
+            }
+            BookDetails details = bookDetailsService.findById(id, new PageRequest(0, 1000));
+            if (details == null) {
+                return notFound(id);
             }
 
-            var pageRequest = new sumdu.edu.ua.core.domain.PageRequest(0, 1000);
-            var commentsPage = commentRepo.list(id, null, null, pageRequest);
-            
             var response = new sumdu.edu.ua.web.http.BookWithCommentsResponse(
-                    book, commentsPage.getItems());
+                    details.getBook(), details.getComments().getItems());
             
             return ResponseEntity.ok(response);
+        } catch (LookupTimeoutException e) {
+            log.warn("Timeout while GET /api/books/{}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                            e.getMessage(), "/api/books/" + id));
         } catch (IllegalArgumentException e) {
             log.warn("Bad request: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -140,5 +183,55 @@ public class BooksApiController {
         }
     }
 
-}
+    /**
+     * POST /api/books/import - Imports books from a CSV or NDJSON body, read as it arrives.
+     * Only ADMIN can import books.
+     * Answers with one {@link BookImportReport} JSON line per imported chunk; the last line has {@code done} set.
+     * The import gives its admin concurrency slot back once it starts, see {@link ConcurrencyLimitFilter#release}.
+     *
+     * @return 400 if the charset is unknown or the CSV header lacks a column, otherwise null as the reports are
+     *         written directly
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public ResponseEntity<?> importBooks(HttpServletRequest request, HttpServletResponse response,
+                                         Locale locale) throws IOException {
+        BookImportReader reader;
+        try {
+            Charset charset = request.getCharacterEncoding() != null
+                    ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+            Reader body = new InputStreamReader(request.getInputStream(), charset);
+            reader = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"))
+                    ? BookImportReader.csv(body)
+                    : BookImportReader.ndjson(body, objectMapper);
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request",
+                            e.getMessage(), "/api/books/import"));
+        }
 
+        // runs for minutes; as a sample it would hold back every other admin request
+        ConcurrencyLimitFilter.release(request);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        bookImportService.importBooks(reader, locale, report -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(report));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return null;
+    }
+
+    private static ResponseEntity<ErrorResponse> notFound(long id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), "Not Found",
+                        "Book not found with id: " + id, "/api/books/" + id));
+    }
+}
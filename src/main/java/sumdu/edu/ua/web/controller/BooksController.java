@@ -1,33 +1,56 @@
 package sumdu.edu.ua.web.controller;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import sumdu.edu.ua.core.domain.Book;
 import sumdu.edu.ua.core.domain.Page;
 import sumdu.edu.ua.core.domain.PageRequest;
 import sumdu.edu.ua.core.port.CatalogRepositoryPort;
 import sumdu.edu.ua.core.service.BookService;
+import sumdu.edu.ua.core.service.ContentVersions;
 import sumdu.edu.ua.core.service.EmailService;
+import sumdu.edu.ua.core.service.NewBookSubscriptionService;
+import sumdu.edu.ua.web.cache.EntityTags;
+import sumdu.edu.ua.web.cache.FragmentCache;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Controller
 public class BooksController {
 
     private final CatalogRepositoryPort bookRepo;
     private final BookService bookService;
-    private final EmailService emailService;
+    private final ObjectProvider<EmailService> emailService;
+    private final NewBookSubscriptionService subscriptionService;
+    private final EntityTags entityTags;
+    private final FragmentCache fragmentCache;
+    private final ContentVersions versions;
 
     @Autowired
-    public BooksController(CatalogRepositoryPort bookRepo, BookService bookService, EmailService emailService) {
+    public BooksController(CatalogRepositoryPort bookRepo, BookService bookService,
+                           ObjectProvider<EmailService> emailService,
+                           NewBookSubscriptionService subscriptionService,
+                           EntityTags entityTags, FragmentCache fragmentCache,
+                           ContentVersions versions) {
         this.bookRepo = bookRepo;
         this.bookService = bookService;
         this.emailService = emailService;
+        this.subscriptionService = subscriptionService;
+        this.entityTags = entityTags;
+        this.fragmentCache = fragmentCache;
+        this.versions = versions;
     }
 
     /**
@@ -39,7 +62,8 @@ public class BooksController {
     }
 
     /**
-     * Handles GET /books request and returns Thymeleaf view.
+     * Handles GET /books request and returns Thymeleaf view, or 304 if the client's copy is current.
+     * The book list is rendered once per catalog version, query and role, see {@link FragmentCache}.
      */
     @GetMapping("/books")
     public String listBooks(
@@ -47,6 +71,8 @@ public class BooksController {
             @RequestParam(required = false, defaultValue = "20") int size,
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String sort,
+            @AuthenticationPrincipal UserDetails userDetails,
+            ServletWebRequest webRequest,
             Model model) {
 
         if (page < 0) {
@@ -55,23 +81,37 @@ public class BooksController {
         if (size <= 0 || size > 100) {
             size = 20;
         }
+        if (entityTags.checkCatalogPage(webRequest)) {
+            return null;
+        }
 
-        PageRequest pageRequest = new PageRequest(page, size, sort, true);
-        Page<Book> result = bookRepo.search(q, pageRequest);
-        long total = result.getTotal();
-        int totalPages = (int) ((total + size - 1) / size);
-
-        model.addAttribute("books", result.getItems());
-        model.addAttribute("q", q);
-        model.addAttribute("page", page);
-        model.addAttribute("size", size);
-        model.addAttribute("sort", sort);
-        model.addAttribute("total", total);
-        model.addAttribute("totalPages", totalPages);
+        int pageNumber = page;
+        int pageSize = size;
+        String key = versions.catalog() + "|" + webRequest.isUserInRole("ADMIN")
+                + "|" + q + "|" + sort + "|" + page + "|" + size;
+        model.addAttribute("catalogHtml", fragmentCache.render("fragments/catalog", "catalog", key,
+                () -> catalogModel(q, sort, pageNumber, pageSize), webRequest));
+        model.addAttribute("subscribedToNewBooks",
+                userDetails != null && subscriptionService.isSubscribed(userDetails.getUsername()));
 
         return "books";
     }
 
+    private Map<String, Object> catalogModel(String q, String sort, int page, int size) {
+        Page<Book> result = bookRepo.search(q, new PageRequest(page, size, sort, true));
+        long total = result.getTotal();
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("books", result.getItems());
+        model.put("q", q);
+        model.put("page", page);
+        model.put("size", size);
+        model.put("sort", sort);
+        model.put("total", total);
+        model.put("totalPages", (int) ((total + size - 1) / size));
+        return model;
+    }
+
     /**
      * Handles GET /books/add request and returns form view.
      * Only ADMIN can add books.
@@ -97,7 +137,7 @@ public class BooksController {
                     book.getPubYear()
             );
             try {
-                emailService.sendNewBookEmail(saved);
+                emailService.getObject().sendNewBookEmail(saved);
             } catch (Exception e) {
                 redirectAttributes.addFlashAttribute("emailError", "Failed to send notification email, but book was added successfully");
             }
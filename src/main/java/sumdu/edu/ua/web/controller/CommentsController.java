@@ -9,15 +9,24 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.BookDetails;
 import sumdu.edu.ua.core.domain.Comment;
 import sumdu.edu.ua.core.domain.Page;
 import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.exception.BookNotFoundException;
 import sumdu.edu.ua.core.port.CommentRepositoryPort;
+import sumdu.edu.ua.core.service.BookDetailsService;
 import sumdu.edu.ua.core.service.BookService;
 import sumdu.edu.ua.core.service.CommentService;
+import sumdu.edu.ua.core.service.ContentVersions;
+import sumdu.edu.ua.web.cache.EntityTags;
+import sumdu.edu.ua.web.cache.FragmentCache;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/books/{bookId}")
@@ -34,42 +43,73 @@ public class CommentsController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private BookDetailsService bookDetailsService;
+
+    @Autowired
+    private EntityTags entityTags;
+
+    @Autowired
+    private FragmentCache fragmentCache;
+
+    @Autowired
+    private ContentVersions versions;
+
     @GetMapping
     public String showBookWithComments(
             @PathVariable long bookId,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "20") int size,
+            ServletWebRequest webRequest,
             Model model) {
 
-        Book book = bookService.findById(bookId);
-        if (book == null) {
-            log.warn("Book not found: {}", bookId);
-            return "redirect:/books";
-        }
-
         if (page < 0) {
             page = 0;
         }
         if (size <= 0 || size > 100) {
             size = 20;
         }
+        // served by BookCache; the redirect for a missing book is not tagged, since the id may be taken later
+        Book book = bookService.findById(bookId);
+        if (book == null) {
+            log.warn("Book not found: {}", bookId);
+            return "redirect:/books";
+        }
+        if (entityTags.checkBookPage(webRequest, bookId)) {
+            return null;
+        }
 
-        PageRequest pageRequest = new PageRequest(page, size);
-        Page<Comment> result = commentRepo.list(bookId, null, null, pageRequest);
-
-        long total = result.getTotal();
-        int totalPages = (int) ((total + size - 1) / size);
-
+        int pageNumber = page;
+        int pageSize = size;
+        // comments are only read if their fragment is not cached; admins see delete forms with their
+        // CSRF token, so their fragment is not shared
+        String key = webRequest.isUserInRole("ADMIN") ? null
+                : bookId + "|" + versions.comments(bookId) + "|" + page + "|" + size;
         model.addAttribute("book", book);
-        model.addAttribute("comments", result.getItems());
-        model.addAttribute("page", page);
-        model.addAttribute("size", size);
-        model.addAttribute("total", total);
-        model.addAttribute("totalPages", totalPages);
+        model.addAttribute("commentsHtml", fragmentCache.render("fragments/book-comments", "comments", key,
+                () -> commentsModel(bookId, pageNumber, pageSize), webRequest));
 
         return "book-comments";
     }
 
+    private Map<String, Object> commentsModel(long bookId, int page, int size) {
+        BookDetails details = bookDetailsService.findById(bookId, new PageRequest(page, size));
+        if (details == null) {
+            throw new BookNotFoundException("Book not found: " + bookId);
+        }
+        Page<Comment> result = details.getComments();
+        long total = result.getTotal();
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("book", details.getBook());
+        model.put("comments", result.getItems());
+        model.put("page", page);
+        model.put("size", size);
+        model.put("total", total);
+        model.put("totalPages", (int) ((total + size - 1) / size));
+        return model;
+    }
+
     @PostMapping
     public String addComment(
             @PathVariable long bookId,
@@ -11,6 +11,7 @@ import sumdu.edu.ua.core.exception.BookNotFoundException;
 import sumdu.edu.ua.core.exception.CommentTooOldException;
 import sumdu.edu.ua.core.exception.InvalidCommentDeleteException;
 import sumdu.edu.ua.core.exception.InvalidCommentTextException;
+import sumdu.edu.ua.core.exception.LookupTimeoutException;
 
 /**
  * MVC Controller Advice for handling exceptions and redirecting to error pages.
@@ -62,5 +63,14 @@ public class MvcExceptionHandler {
         redirectAttributes.addAttribute("errorMessage", ex.getMessage());
         return "redirect:/error/general";
     }
-}
 
+    @ExceptionHandler(LookupTimeoutException.class)
+    public String handleLookupTimeoutException(LookupTimeoutException ex,
+                                               RedirectAttributes redirectAttributes) {
+        log.warn("MVC: Lookup timed out: {}", ex.getMessage());
+        redirectAttributes.addAttribute("errorCode", "503");
+        redirectAttributes.addAttribute("errorTitleKey", "error.lookup.timeout.title");
+        redirectAttributes.addAttribute("errorMessage", ex.getMessage());
+        return "redirect:/error/general";
+    }
+}
@@ -0,0 +1,106 @@
+package sumdu.edu.ua.web.controller;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import sumdu.edu.ua.persistence.jdbc.SqlStatementStats;
+import sumdu.edu.ua.web.http.MethodLatencyResponse;
+import sumdu.edu.ua.web.http.SqlFingerprintResponse;
+import sumdu.edu.ua.web.metrics.LatencyHistogram;
+import sumdu.edu.ua.web.metrics.ServiceMethodMetrics;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Exposes service method latency histograms and SQL statement totals. Available to ADMIN only (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+public class ServiceMetricsApiController {
+
+    private static final int MAX_SQL_LIMIT = 500;
+
+    private final ServiceMethodMetrics metrics;
+    private final ObjectProvider<SqlStatementStats> sqlStats;
+
+    @Autowired
+    public ServiceMetricsApiController(ServiceMethodMetrics metrics, ObjectProvider<SqlStatementStats> sqlStats) {
+        this.metrics = metrics;
+        this.sqlStats = sqlStats;
+    }
+
+    /**
+     * GET /api/admin/metrics/service-methods - latency percentiles per service method,
+     * sorted by total time spent.
+     */
+    @GetMapping(value = "/service-methods", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<MethodLatencyResponse> serviceMethods() {
+        return metrics.histograms().entrySet().stream()
+                .map(e -> new SnapshotEntry(e.getKey(), e.getValue().snapshot()))
+                .sorted(Comparator.comparingLong((SnapshotEntry e) -> e.snapshot.getTotalNanos()).reversed())
+                .map(e -> toResponse(e.method, e.snapshot))
+                .toList();
+    }
+
+    /**
+     * GET /api/admin/metrics/sql - top SQL statement fingerprints.
+     *
+     * @param limit number of fingerprints to return
+     * @param sort {@code total}, {@code max} or {@code count}
+     */
+    @GetMapping(value = "/sql", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<SqlFingerprintResponse> sql(@RequestParam(defaultValue = "20") int limit,
+                                            @RequestParam(defaultValue = "total") String sort) {
+        SqlStatementStats stats = sqlStats.getIfAvailable();
+        if (stats == null) {
+            return List.of();
+        }
+        Comparator<SqlStatementStats.Snapshot> order = switch (sort) {
+            case "max" -> SqlStatementStats.Snapshot.BY_MAX;
+            case "count" -> SqlStatementStats.Snapshot.BY_COUNT;
+            default -> SqlStatementStats.Snapshot.BY_TOTAL;
+        };
+        return stats.top(Math.max(1, Math.min(limit, MAX_SQL_LIMIT)), order).stream()
+                .map(s -> new SqlFingerprintResponse(s.fingerprint(), s.count(), s.failures(),
+                        millis(s.totalNanos()), micros(s.meanNanos()), micros(s.maxNanos())))
+                .toList();
+    }
+
+    /**
+     * DELETE /api/admin/metrics/sql - clears SQL statement totals to start a new measurement window.
+     */
+    @DeleteMapping("/sql")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void resetSql() {
+        sqlStats.ifAvailable(SqlStatementStats::reset);
+    }
+
+    private MethodLatencyResponse toResponse(String method, LatencyHistogram.Snapshot s) {
+        return new MethodLatencyResponse(method, s.getCount(),
+                micros(s.getMeanNanos()),
+                micros(s.valueAtPercentile(50)),
+                micros(s.valueAtPercentile(90)),
+                micros(s.valueAtPercentile(99)),
+                micros(s.valueAtPercentile(99.9)),
+                micros(s.getMaxNanos()));
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 10.0) / 100.0;
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private record SnapshotEntry(String method, LatencyHistogram.Snapshot snapshot) {
+    }
+}
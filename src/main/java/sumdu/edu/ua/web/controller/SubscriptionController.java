@@ -0,0 +1,47 @@
+package sumdu.edu.ua.web.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import sumdu.edu.ua.core.service.NewBookSubscriptionService;
+
+/**
+ * Subscribing the current user to the new books digest.
+ */
+@Controller
+@RequestMapping("/subscriptions/new-books")
+public class SubscriptionController {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionController.class);
+
+    private final NewBookSubscriptionService subscriptionService;
+
+    @Autowired
+    public SubscriptionController(NewBookSubscriptionService subscriptionService) {
+        this.subscriptionService = subscriptionService;
+    }
+
+    @PostMapping
+    public String subscribe(@AuthenticationPrincipal UserDetails userDetails,
+                            RedirectAttributes redirectAttributes) {
+        subscriptionService.subscribe(userDetails.getUsername(), LocaleContextHolder.getLocale());
+        redirectAttributes.addFlashAttribute("subscriptionMessage", "subscription.new.books.subscribed");
+        return "redirect:/books";
+    }
+
+    @PostMapping(params = "_method=delete")
+    public String unsubscribe(@AuthenticationPrincipal UserDetails userDetails,
+                              RedirectAttributes redirectAttributes) {
+        subscriptionService.unsubscribe(userDetails.getUsername());
+        log.info("User '{}' unsubscribed from new books", userDetails.getUsername());
+        redirectAttributes.addFlashAttribute("subscriptionMessage", "subscription.new.books.unsubscribed");
+        return "redirect:/books";
+    }
+}
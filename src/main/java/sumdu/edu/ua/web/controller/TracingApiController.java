@@ -0,0 +1,43 @@
+package sumdu.edu.ua.web.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import sumdu.edu.ua.web.tracing.OtlpJsonEncoder;
+import sumdu.edu.ua.web.tracing.SpanRingBuffer;
+import sumdu.edu.ua.web.tracing.Tracer;
+
+import java.util.Map;
+
+/**
+ * Exposes recently finished spans. Available to ADMIN only (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin/traces")
+public class TracingApiController {
+
+    private final Tracer tracer;
+    private final OtlpJsonEncoder encoder;
+
+    @Autowired
+    public TracingApiController(Tracer tracer, OtlpJsonEncoder encoder) {
+        this.tracer = tracer;
+        this.encoder = encoder;
+    }
+
+    /**
+     * GET /api/admin/traces - the last spans in the ring buffer as an OTLP/JSON trace export request.
+     *
+     * @param limit maximum number of spans
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> recentSpans(@RequestParam(defaultValue = "500") int limit) {
+        SpanRingBuffer buffer = tracer.buffer();
+        long position = buffer.position();
+        int count = Math.max(1, Math.min(limit, buffer.capacity()));
+        return encoder.encode(buffer.read(position - count, position));
+    }
+}
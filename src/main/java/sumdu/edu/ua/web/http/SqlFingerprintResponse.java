@@ -0,0 +1,47 @@
+package sumdu.edu.ua.web.http;
+
+/**
+ * Execution totals of one normalized SQL statement.
+ */
+public class SqlFingerprintResponse {
+    private final String fingerprint;
+    private final long count;
+    private final long failures;
+    private final double totalMillis;
+    private final double meanMicros;
+    private final double maxMicros;
+
+    public SqlFingerprintResponse(String fingerprint, long count, long failures, double totalMillis,
+                                  double meanMicros, double maxMicros) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.failures = failures;
+        this.totalMillis = totalMillis;
+        this.meanMicros = meanMicros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+}
@@ -0,0 +1,143 @@
+package sumdu.edu.ua.web.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline report of the slowest service and repository operations in a JFR recording.
+ *
+ * Uses only JDK classes, so it can be run straight from source:
+ * {@code java src/main/java/sumdu/edu/ua/web/jfr/JfrRecordingAnalyzer.java recording.jfr [top]}
+ */
+public final class JfrRecordingAnalyzer {
+
+    private static final String SERVICE_CALL = "sumdu.edu.ua.ServiceCall";
+    private static final String REPOSITORY_CALL = "sumdu.edu.ua.RepositoryCall";
+    private static final int DEFAULT_TOP = 10;
+
+    private JfrRecordingAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JfrRecordingAnalyzer <recording.jfr> [top]");
+            System.exit(2);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP;
+        analyze(Path.of(args[0]), top, System.out);
+    }
+
+    /**
+     * Prints per-operation totals ordered by total time, then the slowest single calls.
+     *
+     * @param recording JFR file
+     * @param top number of rows in each section
+     * @param out report destination
+     */
+    public static void analyze(Path recording, int top, PrintStream out) throws IOException {
+        Map<String, OperationStats> stats = new HashMap<>();
+        List<RecordedEvent> slowest = new ArrayList<>();
+        Comparator<RecordedEvent> byDuration = Comparator.comparing(RecordedEvent::getDuration);
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (!type.equals(SERVICE_CALL) && !type.equals(REPOSITORY_CALL)) {
+                    continue;
+                }
+                String key = layer(type) + " " + event.getString("operation");
+                stats.computeIfAbsent(key, k -> new OperationStats()).add(event);
+
+                slowest.add(event);
+                if (slowest.size() > top * 4) {
+                    slowest.sort(byDuration.reversed());
+                    slowest.subList(top, slowest.size()).clear();
+                }
+            }
+        }
+
+        out.printf("%-60s %8s %12s %10s %10s %10s %8s%n",
+                "Operation", "Count", "Total ms", "Mean ms", "p99 ms", "Max ms", "Failed");
+        stats.entrySet().stream()
+                .sorted(Map.Entry.<String, OperationStats>comparingByValue(
+                        Comparator.comparingLong(OperationStats::totalNanos)).reversed())
+                .limit(top)
+                .forEach(e -> {
+                    OperationStats s = e.getValue();
+                    out.printf("%-60s %8d %12.1f %10.2f %10.2f %10.2f %8d%n",
+                            e.getKey(), s.count, millis(s.totalNanos()), millis(s.totalNanos() / s.count),
+                            millis(s.percentile(99)), millis(s.max()), s.failed);
+                });
+
+        out.println();
+        out.printf("%-60s %10s %8s %8s %8s %s%n", "Slowest calls", "ms", "Book id", "Query", "Rows", "Start");
+        slowest.sort(byDuration.reversed());
+        for (RecordedEvent event : slowest.subList(0, Math.min(top, slowest.size()))) {
+            out.printf("%-60s %10.2f %8s %8s %8s %s%n",
+                    layer(event.getEventType().getName()) + " " + event.getString("operation"),
+                    millis(event.getDuration().toNanos()),
+                    optional(event.getLong("bookId")), optional(event.getInt("queryLength")),
+                    optional(event.getInt("rows")), event.getStartTime());
+        }
+    }
+
+    private static String layer(String eventType) {
+        return eventType.equals(SERVICE_CALL) ? "[service]" : "[repository]";
+    }
+
+    private static String optional(long value) {
+        return value < 0 ? "-" : Long.toString(value);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class OperationStats {
+        private long[] durations = new long[16];
+        private int count;
+        private int failed;
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            Duration duration = event.getDuration();
+            durations[count++] = duration.toNanos();
+            if (event.getBoolean("failed")) {
+                failed++;
+            }
+        }
+
+        long totalNanos() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += durations[i];
+            }
+            return total;
+        }
+
+        long max() {
+            return percentile(100);
+        }
+
+        long percentile(double percentile) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package sumdu.edu.ua.web.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Common fields of the application's JFR events. Duration is recorded by JFR itself.
+ * Fields that do not apply to an operation are left at -1.
+ */
+public abstract class OperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Book Id")
+    public long bookId = -1;
+
+    @Label("Query Text Length")
+    public int queryLength = -1;
+
+    @Label("Rows Returned")
+    public int rows = -1;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,19 @@
+package sumdu.edu.ua.web.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a call to {@code CatalogRepositoryPort} or {@code CommentRepositoryPort}.
+ */
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Description("Call to a catalog or comment repository port")
+@Category({"Books Catalog", "Repository"})
+@StackTrace(false)
+public class RepositoryCallEvent extends OperationEvent {
+    public static final String NAME = "sumdu.edu.ua.RepositoryCall";
+}
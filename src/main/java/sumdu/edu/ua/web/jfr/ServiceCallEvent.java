@@ -0,0 +1,19 @@
+package sumdu.edu.ua.web.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a call to {@code BookService} or {@code CommentService}.
+ */
+@Name(ServiceCallEvent.NAME)
+@Label("Service Call")
+@Description("Call to a book or comment service method")
+@Category({"Books Catalog", "Service"})
+@StackTrace(false)
+public class ServiceCallEvent extends OperationEvent {
+    public static final String NAME = "sumdu.edu.ua.ServiceCall";
+}
@@ -0,0 +1,111 @@
+package sumdu.edu.ua.web.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency with a gradient algorithm (as in Netflix's Gradient2).
+ *
+ * A long-term exponential average of response times stands in for the latency without queueing. Each
+ * sample computes {@code gradient = tolerance * longRtt / sampleRtt}, clamped to [0.5, 1]: while
+ * samples stay within the tolerance the limit grows by {@code sqrt(limit)}, and when they rise above it
+ * the limit shrinks in proportion. Unlike Gradient2, the {@code sqrt(limit)} headroom is not added while
+ * shrinking, since it would hold the limit at 4 or more and a lower minimum could never be reached.
+ * The limit only grows while at least half of it is in use, so an idle
+ * period does not inflate it. Requests over the limit are not queued; {@link #tryAcquire()} fails at once.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit, got " + minLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return {@code true} if the request may proceed; it must then be completed with
+     *         {@link #onSample(long, int)} or {@link #onIgnore()}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Completes an acquired request and adjusts the limit to its response time.
+     *
+     * @param rttNanos response time of the request
+     * @param inFlightAtStart requests in flight, including this one, when it was admitted
+     */
+    public void onSample(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        if (rttNanos <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+            } else {
+                double factor = 2.0 / (LONG_WINDOW + 1);
+                longRttNanos = longRttNanos * (1 - factor) + rttNanos * factor;
+            }
+            // after a latency spike, let the baseline come back down faster than the window allows
+            if (longRttNanos / rttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+
+            double current = limit;
+            if (inFlightAtStart < current / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+            double target = gradient < 1.0 ? current * gradient : current + Math.sqrt(current);
+            double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes an acquired request without using its response time, e.g. when it failed
+     * before doing the usual work.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return current limit, rounded down
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,152 @@
+package sumdu.edu.ua.web.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sumdu.edu.ua.web.http.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rejects requests over the adaptive concurrency limit of their {@link EndpointGroup} with
+ * 503 and {@code Retry-After} instead of queueing them. Runs before Spring Security, so a
+ * rejected request costs neither a session lookup nor a password check.
+ *
+ * A request that runs far longer than the rest of its group, e.g. a book import, calls {@link #release} once
+ * it starts, so it neither holds a slot for its whole run nor drags the group's latency baseline up.
+ *
+ * Publishes {@code app.concurrency.limit} and {@code app.concurrency.in-flight} gauges and an
+ * {@code app.concurrency.requests} counter with {@code outcome=accepted|rejected}, tagged by group.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String RELEASE_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".release";
+
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> accepted = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+    private final ObjectMapper objectMapper;
+    private final int rejectStatus;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(MeterRegistry registry, ObjectMapper objectMapper, Environment environment,
+                                  @Value("${app.concurrency-limit.reject-status:503}") int rejectStatus,
+                                  @Value("${app.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.objectMapper = objectMapper;
+        this.rejectStatus = rejectStatus;
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "app.concurrency-limit." + group.key() + ".";
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, group.initialLimit()),
+                    environment.getProperty(prefix + "min-limit", Integer.class, group.minLimit()),
+                    environment.getProperty(prefix + "max-limit", Integer.class, group.maxLimit()));
+            limits.put(group, limit);
+
+            Gauge.builder("app.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Adaptive concurrency limit of the endpoint group")
+                    .tag("group", group.key())
+                    .register(registry);
+            Gauge.builder("app.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests of the endpoint group in progress")
+                    .tag("group", group.key())
+                    .register(registry);
+            accepted.put(group, Counter.builder("app.concurrency.requests")
+                    .tag("group", group.key()).tag("outcome", "accepted").register(registry));
+            rejected.put(group, Counter.builder("app.concurrency.requests")
+                    .tag("group", group.key()).tag("outcome", "rejected").register(registry));
+        }
+    }
+
+    /**
+     * Gives the request's slot back to its group without a response time sample. Does nothing for a request
+     * that is not limited, or when the filter is disabled.
+     */
+    public static void release(HttpServletRequest request) {
+        if (request.getAttribute(RELEASE_ATTRIBUTE) instanceof Runnable release) {
+            release.run();
+        }
+    }
+
+    /**
+     * @return the live limit of the group
+     */
+    public AdaptiveConcurrencyLimit limit(EndpointGroup group) {
+        return limits.get(group);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointGroup group = EndpointGroup.of(request.getMethod(), path);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        if (!limit.tryAcquire()) {
+            rejected.get(group).increment();
+            reject(request, response, group);
+            return;
+        }
+        accepted.get(group).increment();
+        int inFlight = limit.getInFlight();
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        request.setAttribute(RELEASE_ATTRIBUTE, (Runnable) () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.onIgnore();
+            }
+        });
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = response.getStatus() < 500;
+        } finally {
+            if (released.compareAndSet(false, true)) {
+                if (completed) {
+                    limit.onSample(System.nanoTime() - start, inFlight);
+                } else {
+                    limit.onIgnore();
+                }
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointGroup group)
+            throws IOException {
+        response.setStatus(rejectStatus);
+        response.setHeader("Retry-After", retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        HttpStatus status = HttpStatus.resolve(rejectStatus);
+        ErrorResponse body = new ErrorResponse(rejectStatus,
+                status != null ? status.getReasonPhrase() : "Overloaded",
+                "Too many concurrent " + group.key() + " requests, retry later",
+                request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
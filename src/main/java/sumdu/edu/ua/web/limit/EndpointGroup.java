@@ -0,0 +1,81 @@
+package sumdu.edu.ua.web.limit;
+
+/**
+ * Endpoint groups with separate concurrency limits, so that a flood on one group
+ * (e.g. comment writes) cannot take the request threads and connections of another.
+ */
+public enum EndpointGroup {
+
+    CATALOG_READ("catalog-read", 20, 4, 200),
+    COMMENT_WRITE("comment-write", 10, 2, 50),
+    /** Login and registration hash passwords with BCrypt, so a few concurrent requests saturate the CPU. */
+    AUTH("auth", 4, 1, 16),
+    ADMIN("admin", 4, 1, 16);
+
+    private final String key;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    EndpointGroup(String key, int initialLimit, int minLimit, int maxLimit) {
+        this.key = key;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return name used in {@code app.concurrency-limit.<key>.*} properties and metric tags
+     */
+    public String key() {
+        return key;
+    }
+
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    public int minLimit() {
+        return minLimit;
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * @param method HTTP method
+     * @param path request path without the context path
+     * @return group of the request, or {@code null} for requests that are not limited
+     *         (static resources, health checks, error pages, H2 console)
+     */
+    public static EndpointGroup of(String method, String path) {
+        boolean read = method.equals("GET") || method.equals("HEAD");
+        if (path.startsWith("/api/admin/") || (path.startsWith("/actuator/") && !path.startsWith("/actuator/health"))) {
+            return ADMIN;
+        }
+        if (path.equals("/login") || path.equals("/logout") || path.equals("/register") || path.equals("/confirm")) {
+            return AUTH;
+        }
+        if (path.equals("/api/books") || path.startsWith("/api/books/")) {
+            return read ? CATALOG_READ : ADMIN;
+        }
+        if (path.startsWith("/books/add") || path.startsWith("/books/edit/") || path.startsWith("/books/delete/")) {
+            return ADMIN;
+        }
+        if (path.equals("/comments") || path.startsWith("/comments/")) {
+            return read ? CATALOG_READ : COMMENT_WRITE;
+        }
+        if (path.equals("/books") || path.startsWith("/books/")) {
+            if (read) {
+                return CATALOG_READ;
+            }
+            // POST /books/{id} adds or deletes a comment
+            return method.equals("POST") ? COMMENT_WRITE : ADMIN;
+        }
+        if (path.equals("/") || path.equals("/index") || (path.startsWith("/users/") && path.endsWith("/comments"))) {
+            return read ? CATALOG_READ : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,122 @@
+package sumdu.edu.ua.web.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import sumdu.edu.ua.web.http.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limits for the routes in {@code app.rate-limit.routes}, keyed by route and principal,
+ * and by route and client IP with {@code app.rate-limit.ip-factor} times the limit (anonymous requests and
+ * several accounts behind one address). Runs after Spring Security, so the principal is known.
+ *
+ * Sets {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset} (seconds) on limited
+ * routes, and answers 429 with {@code Retry-After} when a bucket is empty.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final TokenBucketRateLimiter limiter;
+    private final Map<String, RateLimitRule> rules;
+    private final boolean enabled;
+    private final int ipFactor;
+    private final ObjectMapper objectMapper;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public RateLimitInterceptor(MeterRegistry registry, ObjectMapper objectMapper,
+                                @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${app.rate-limit.routes:}") String routes,
+                                @Value("${app.rate-limit.ip-factor:4}") int ipFactor,
+                                @Value("${app.rate-limit.max-keys:1000000}") int maxKeys) {
+        this.limiter = new TokenBucketRateLimiter(maxKeys);
+        this.rules = RateLimitRule.parseRoutes(routes);
+        this.enabled = enabled;
+        this.ipFactor = ipFactor;
+        this.objectMapper = objectMapper;
+        this.allowed = Counter.builder("app.rate-limit.requests").tag("outcome", "allowed").register(registry);
+        this.rejected = Counter.builder("app.rate-limit.requests").tag("outcome", "rejected").register(registry);
+        Gauge.builder("app.rate-limit.buckets", limiter, TokenBucketRateLimiter::size)
+                .description("Tracked token buckets")
+                .register(registry);
+        FunctionCounter.builder("app.rate-limit.untracked", limiter, TokenBucketRateLimiter::untrackedCount)
+                .description("Requests allowed without a bucket because the bucket map was full")
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!enabled) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return true;
+        }
+        String route = request.getMethod() + " " + pattern;
+        RateLimitRule rule = rules.get(route);
+        if (rule == null) {
+            return true;
+        }
+
+        String byIp = route + "|ip:" + request.getRemoteAddr();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        TokenBucketRateLimiter.Decision decision;
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            decision = limiter.tryConsumeAll(List.of(route + "|user:" + auth.getName(), byIp),
+                    List.of(rule, rule.scaled(ipFactor)));
+        } else {
+            decision = limiter.tryConsume(byIp, rule.scaled(ipFactor));
+        }
+
+        response.setHeader("RateLimit-Limit", Integer.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Integer.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(decision.resetNanos())));
+        if (decision.allowed()) {
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(toSeconds(decision.retryAfterNanos())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(), "Rate limit of " + route + " exceeded",
+                request.getRequestURI()));
+        return false;
+    }
+
+    /**
+     * Drops buckets that have refilled, so keys of clients that went quiet do not accumulate.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}")
+    public void evictExpiredBuckets() {
+        limiter.evictExpired();
+    }
+
+    private static long toSeconds(long nanos) {
+        return nanos <= 0 ? 0 : (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,58 @@
+package sumdu.edu.ua.web.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket of {@code burst} tokens refilled at {@code permitsPerMinute}.
+ *
+ * @param permitsPerMinute sustained rate
+ * @param burst bucket capacity, i.e. requests allowed at once after a quiet period
+ */
+public record RateLimitRule(int permitsPerMinute, int burst) {
+
+    public RateLimitRule {
+        if (permitsPerMinute < 1 || burst < 1) {
+            throw new IllegalArgumentException("Expected positive rate and burst, got " + permitsPerMinute + "/" + burst);
+        }
+    }
+
+    /**
+     * @return time to refill one token
+     */
+    public long emissionIntervalNanos() {
+        return TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+    }
+
+    /**
+     * @return the rule with rate and burst multiplied by {@code factor}
+     */
+    public RateLimitRule scaled(int factor) {
+        return new RateLimitRule(permitsPerMinute * factor, burst * factor);
+    }
+
+    /**
+     * Parses {@code METHOD pattern=rate/burst} entries separated by commas,
+     * e.g. {@code POST /comments=30/10, DELETE /comments=60/20}.
+     *
+     * @return rules keyed by {@code METHOD pattern}
+     */
+    public static Map<String, RateLimitRule> parseRoutes(String routes) {
+        Map<String, RateLimitRule> rules = new LinkedHashMap<>();
+        for (String entry : routes.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.lastIndexOf('=');
+            int slash = entry.lastIndexOf('/');
+            if (eq < 0 || slash < eq) {
+                throw new IllegalArgumentException("Expected METHOD pattern=rate/burst, got " + entry.trim());
+            }
+            String route = entry.substring(0, eq).trim().replaceAll("\\s+", " ");
+            rules.put(route, new RateLimitRule(Integer.parseInt(entry.substring(eq + 1, slash).trim()),
+                    Integer.parseInt(entry.substring(slash + 1).trim())));
+        }
+        return rules;
+    }
+}
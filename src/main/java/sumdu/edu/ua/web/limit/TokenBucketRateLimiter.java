@@ -0,0 +1,198 @@
+package sumdu.edu.ua.web.limit;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by client, implemented with the generic cell rate algorithm (GCRA).
+ *
+ * The whole state of a bucket is one {@link AtomicLong}: the theoretical arrival time (TAT) at which the
+ * bucket would be full again. A request advances it by one emission interval with a CAS and is allowed
+ * while the TAT stays within {@code burst} intervals of now, so buckets need neither locks nor a refill task.
+ *
+ * A bucket whose TAT has passed is full, i.e. the same as a missing one, so eviction never changes a
+ * decision: {@link #evictExpired()} drops those, and a stripe that reaches its share of {@code maxKeys} is
+ * swept on insert, at most once per {@value #SWEEP_BACKOFF_MILLIS} ms. Keys are spread over independent
+ * stripes so that a sweep walks one stripe at a time. If a stripe is still full of active buckets, new keys
+ * are not tracked (allowed, counted as untracked) rather than growing memory without bound.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 16;
+    private static final long SWEEP_BACKOFF_MILLIS = 100;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxKeysPerStripe;
+    private final LongAdder untracked = new LongAdder();
+
+    public TokenBucketRateLimiter(int maxKeys) {
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes one token from the bucket of {@code key}.
+     */
+    public Decision tryConsume(String key, RateLimitRule rule) {
+        return tryConsume(key, rule, System.nanoTime());
+    }
+
+    Decision tryConsume(String key, RateLimitRule rule, long nowNanos) {
+        long interval = rule.emissionIntervalNanos();
+        Stripe stripe = stripe(key);
+
+        AtomicLong tat = stripe.buckets.get(key);
+        if (tat == null) {
+            if (stripe.buckets.size() >= maxKeysPerStripe) {
+                stripe.sweepIfDue(nowNanos);
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    untracked.increment();
+                    return new Decision(true, rule.burst(), rule.burst() - 1, interval, 0);
+                }
+            }
+            tat = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        while (true) {
+            long current = tat.get();
+            Decision decision = decide(current, rule, nowNanos);
+            if (!decision.allowed() || tat.compareAndSet(current, nowNanos + decision.resetNanos())) {
+                return decision;
+            }
+        }
+    }
+
+    /**
+     * Takes one token from each bucket, or none if any of them is empty, so a request rejected by one
+     * bucket does not use up the others.
+     *
+     * @param keys bucket keys, each limited by the rule at the same index of {@code rules}
+     * @return the decision of an empty bucket, or else the one with the fewest tokens left
+     */
+    public Decision tryConsumeAll(List<String> keys, List<RateLimitRule> rules) {
+        return tryConsumeAll(keys, rules, System.nanoTime());
+    }
+
+    Decision tryConsumeAll(List<String> keys, List<RateLimitRule> rules, long nowNanos) {
+        for (int i = 0; i < keys.size(); i++) {
+            AtomicLong tat = stripe(keys.get(i)).buckets.get(keys.get(i));
+            if (tat != null) {
+                Decision decision = decide(tat.get(), rules.get(i), nowNanos);
+                if (!decision.allowed()) {
+                    return decision;
+                }
+            }
+        }
+        Decision fewest = null;
+        for (int i = 0; i < keys.size(); i++) {
+            Decision decision = tryConsume(keys.get(i), rules.get(i), nowNanos);
+            if (!decision.allowed()) {
+                // another request took the last token since the check above
+                for (int j = 0; j < i; j++) {
+                    refund(keys.get(j), rules.get(j));
+                }
+                return decision;
+            }
+            if (fewest == null || decision.remaining() < fewest.remaining()) {
+                fewest = decision;
+            }
+        }
+        return fewest;
+    }
+
+    private static Decision decide(long tat, RateLimitRule rule, long nowNanos) {
+        long interval = rule.emissionIntervalNanos();
+        long tolerance = interval * rule.burst();
+        long start = tat - nowNanos > 0 ? tat : nowNanos;
+        long ahead = start + interval - nowNanos;
+        if (ahead > tolerance) {
+            return new Decision(false, rule.burst(), 0, tat - nowNanos, ahead - tolerance);
+        }
+        return new Decision(true, rule.burst(), (int) ((tolerance - ahead) / interval), ahead, 0);
+    }
+
+    private void refund(String key, RateLimitRule rule) {
+        AtomicLong tat = stripe(key).buckets.get(key);
+        if (tat != null) {
+            tat.addAndGet(-rule.emissionIntervalNanos());
+        }
+    }
+
+    /**
+     * Removes buckets that have refilled completely.
+     *
+     * @return number of buckets removed
+     */
+    public int evictExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += stripe.sweep(now);
+        }
+        return removed;
+    }
+
+    /**
+     * @return number of tracked buckets
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return requests allowed without a bucket because their stripe was full of active buckets
+     */
+    public long untrackedCount() {
+        return untracked.sum();
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+
+        /**
+         * Sweeps unless another thread did so recently, so that a stripe full of active buckets
+         * does not cost a full scan per new key.
+         */
+        void sweepIfDue(long nowNanos) {
+            long due = nextSweepNanos.get();
+            if (nowNanos - due >= 0
+                    && nextSweepNanos.compareAndSet(due, nowNanos + TimeUnit.MILLISECONDS.toNanos(SWEEP_BACKOFF_MILLIS))) {
+                sweep(nowNanos);
+            }
+        }
+
+        int sweep(long nowNanos) {
+            // a request racing with the removal may consume from the dropped bucket, i.e. get one token for free
+            int before = buckets.size();
+            buckets.values().removeIf(tat -> tat.get() - nowNanos <= 0);
+            return Math.max(0, before - buckets.size());
+        }
+    }
+
+    /**
+     * Outcome of a request, with the values of the {@code RateLimit-*} response headers.
+     *
+     * @param allowed whether the request may proceed
+     * @param limit bucket capacity
+     * @param remaining tokens left after this request
+     * @param resetNanos time until the bucket is full again
+     * @param retryAfterNanos time until the next token, when not allowed
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
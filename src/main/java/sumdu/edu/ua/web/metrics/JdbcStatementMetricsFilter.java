@@ -0,0 +1,48 @@
+package sumdu.edu.ua.web.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import sumdu.edu.ua.persistence.jdbc.RequestStatementCounter;
+
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements executed per HTTP request as
+ * {@code app.http.jdbc.statements}, tagged with the request mapping pattern.
+ */
+@Component
+public class JdbcStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public JdbcStatementMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatementCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                DistributionSummary.builder("app.http.jdbc.statements")
+                        .description("SQL statements executed per HTTP request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern.toString())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry)
+                        .record(RequestStatementCounter.current());
+            }
+        }
+    }
+}
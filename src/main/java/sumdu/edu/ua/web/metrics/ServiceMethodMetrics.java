@@ -0,0 +1,88 @@
+package sumdu.edu.ua.web.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-method latency histograms of the service layer, filled by
+ * {@link sumdu.edu.ua.web.aop.ServiceMethodLoggingAspect}.
+ * Each histogram is also published to Micrometer as {@code app.service.method.latency}
+ * gauges per quantile and an {@code app.service.method.calls} counter. The meters of a method share one
+ * histogram snapshot per scrape: the first meter read takes it, and the others read within a second reuse it.
+ */
+@Component
+public class ServiceMethodMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final long SNAPSHOT_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public ServiceMethodMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param method method name in {@code ClassName.method} form
+     * @return histogram of the method, created on first use
+     */
+    public LatencyHistogram histogram(String method) {
+        return histograms.computeIfAbsent(method, this::register);
+    }
+
+    /**
+     * @return live view of all histograms keyed by method name
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return histograms;
+    }
+
+    private LatencyHistogram register(String method) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ScrapeSnapshot scrape = new ScrapeSnapshot(histogram);
+        for (double quantile : QUANTILES) {
+            TimeGauge.builder("app.service.method.latency", scrape, TimeUnit.NANOSECONDS,
+                            s -> s.get().valueAtPercentile(quantile * 100))
+                    .tag("method", method)
+                    .tag("quantile", Double.toString(quantile))
+                    .register(registry);
+        }
+        FunctionCounter.builder("app.service.method.calls", scrape, s -> s.get().getCount())
+                .tag("method", method)
+                .register(registry);
+        return histogram;
+    }
+
+    /**
+     * Snapshot of a histogram reused for {@link #SNAPSHOT_MAX_AGE_NANOS}, so that a scrape copies the buckets
+     * once instead of once per meter. Concurrent scrapes may both take one, which is harmless.
+     */
+    private static final class ScrapeSnapshot {
+        private final LatencyHistogram histogram;
+        private volatile Taken taken;
+
+        ScrapeSnapshot(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        LatencyHistogram.Snapshot get() {
+            Taken current = taken;
+            long now = System.nanoTime();
+            if (current == null || now - current.atNanos > SNAPSHOT_MAX_AGE_NANOS) {
+                current = new Taken(histogram.snapshot(), now);
+                taken = current;
+            }
+            return current.snapshot;
+        }
+
+        private record Taken(LatencyHistogram.Snapshot snapshot, long atNanos) {
+        }
+    }
+}
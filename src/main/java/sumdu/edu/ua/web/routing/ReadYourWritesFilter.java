@@ -0,0 +1,53 @@
+package sumdu.edu.ua.web.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sumdu.edu.ua.persistence.jdbc.ReadYourWrites;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Sends the reads of a session to the primary database for {@code app.datasource.read-your-writes} after
+ * the session wrote to it, so that a user sees their own comment after the redirect even if the replicas
+ * do not have it yet. Requests without a session are routed by transaction only.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+@ConditionalOnExpression("!'${app.datasource.replicas:}'.isBlank()")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String LAST_WRITE_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".lastWrite";
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(@Value("${app.datasource.read-your-writes:PT5S}") Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        Long lastWrite = session != null ? (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE) : null;
+        ReadYourWrites.begin(lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // the session may have been created by this request, e.g. on login
+            HttpSession current = request.getSession(false);
+            if (ReadYourWrites.end() && current != null) {
+                current.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package sumdu.edu.ua.web.service;
+
+import freemarker.template.SimpleScalar;
+import freemarker.template.TemplateModel;
+
+/**
+ * Model for {@code confirmation_email.ftl}.
+ */
+public record ConfirmationEmailModel(String firstName, String confirmationUrl, String confirmationCode)
+        implements EmailModel {
+
+    @Override
+    public EmailTemplate template() {
+        return EmailTemplate.CONFIRMATION;
+    }
+
+    @Override
+    public TemplateModel get(String key) {
+        return switch (key) {
+            case "firstName" -> new SimpleScalar(firstName);
+            case "confirmationUrl" -> new SimpleScalar(confirmationUrl);
+            case "confirmationCode" -> new SimpleScalar(confirmationCode);
+            default -> null;
+        };
+    }
+}
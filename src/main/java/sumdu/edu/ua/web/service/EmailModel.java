@@ -0,0 +1,18 @@
+package sumdu.edu.ua.web.service;
+
+import freemarker.template.TemplateHashModel;
+
+/**
+ * Typed data model for an email template.
+ * Implementations expose their fields to FreeMarker directly, so no intermediate map is built per send.
+ */
+public sealed interface EmailModel extends TemplateHashModel
+        permits ConfirmationEmailModel, NewBookEmailModel, NewBooksDigestEmailModel {
+
+    EmailTemplate template();
+
+    @Override
+    default boolean isEmpty() {
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package sumdu.edu.ua.web.service;
+
+/**
+ * Email templates known to the application.
+ * All of them are loaded and parsed together when {@link EmailTemplateProcessor} is created.
+ */
+public enum EmailTemplate {
+    CONFIRMATION("confirmation_email.ftl"),
+    NEW_BOOK("new_book.ftl"),
+    NEW_BOOKS_DIGEST("new_books_digest.ftl");
+
+    private final String fileName;
+
+    EmailTemplate(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+}
@@ -2,31 +2,146 @@ package sumdu.edu.ua.web.service;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import sumdu.edu.ua.core.exception.EmailTemplateException;
 
-import java.io.StringWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
 import java.util.Map;
 
+/**
+ * Renders email templates.
+ * Every {@link EmailTemplate} is parsed when the processor is created. The processor is lazy, so that happens
+ * on the first email rather than at startup: a template error now surfaces on the first send, and only
+ * {@code EmailTemplateProcessorTest} catches it earlier. Rendering goes into a per-thread buffer that is reused
+ * between messages.
+ */
 @Component
+@Lazy
 public class EmailTemplateProcessor {
 
-    private final Configuration cfg;
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateProcessor.class);
+
+    /** Buffers that grew beyond this size are not kept for reuse. */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<EmailTemplate, PreparedTemplate> templates = new EnumMap<>(EmailTemplate.class);
+    private final ThreadLocal<StringBuilderWriter> buffers = new ThreadLocal<>();
 
     public EmailTemplateProcessor(@Qualifier("emailFreemarkerConfig") Configuration cfg) {
-        this.cfg = cfg;
+        for (EmailTemplate emailTemplate : EmailTemplate.values()) {
+            try {
+                Template template = cfg.getTemplate(emailTemplate.getFileName());
+                templates.put(emailTemplate, new PreparedTemplate(template, template.toString().length()));
+            } catch (IOException e) {
+                throw new EmailTemplateException("Cannot load template " + emailTemplate.getFileName(), e);
+            }
+        }
+        log.info("Loaded {} email templates", templates.size());
+    }
+
+    /**
+     * Renders the template of the given model into a string.
+     *
+     * @param model typed template model
+     * @return rendered HTML
+     * @throws EmailTemplateException if rendering fails
+     */
+    public String process(EmailModel model) {
+        PreparedTemplate prepared = templates.get(model.template());
+        StringBuilderWriter writer = buffers.get();
+        if (writer == null) {
+            writer = new StringBuilderWriter(prepared.sizeHint);
+            buffers.set(writer);
+        } else {
+            writer.reset(prepared.sizeHint);
+        }
+
+        render(prepared, model, writer);
+        String html = writer.toString();
+
+        prepared.sizeHint = Math.max(prepared.sizeHint, html.length());
+        if (html.length() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return html;
     }
 
-    public String process(String templateName, Map<String, Object> model) {
+    /**
+     * Renders the template of the given model directly into the target writer.
+     *
+     * @param model typed template model
+     * @param out target writer, not closed by this method
+     * @throws EmailTemplateException if rendering fails
+     */
+    public void process(EmailModel model, Writer out) {
+        render(templates.get(model.template()), model, out);
+    }
+
+    private void render(PreparedTemplate prepared, EmailModel model, Writer out) {
         try {
-            Template template = cfg.getTemplate(templateName);
-            StringWriter writer = new StringWriter();
-            template.process(model, writer);
-            return writer.toString();
+            prepared.template.process(model, out);
         } catch (Exception e) {
-            throw new RuntimeException("Cannot render template " + templateName, e);
+            throw new EmailTemplateException("Cannot render template " + model.template().getFileName(), e);
         }
     }
 
-}
+    private static final class PreparedTemplate {
+        private final Template template;
+        private volatile int sizeHint;
+
+        private PreparedTemplate(Template template, int sizeHint) {
+            this.template = template;
+            this.sizeHint = sizeHint;
+        }
+    }
 
+    /**
+     * Unsynchronized writer over a reusable {@link StringBuilder}.
+     */
+    private static final class StringBuilderWriter extends Writer {
+        private final StringBuilder buffer;
+
+        private StringBuilderWriter(int capacity) {
+            this.buffer = new StringBuilder(capacity);
+        }
+
+        private void reset(int capacity) {
+            buffer.setLength(0);
+            buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            buffer.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(int c) {
+            buffer.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
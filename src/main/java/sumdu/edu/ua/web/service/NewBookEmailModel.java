@@ -0,0 +1,27 @@
+package sumdu.edu.ua.web.service;
+
+import freemarker.template.SimpleNumber;
+import freemarker.template.SimpleScalar;
+import freemarker.template.TemplateModel;
+
+/**
+ * Model for {@code new_book.ftl}.
+ */
+public record NewBookEmailModel(String title, String author, int year, String added) implements EmailModel {
+
+    @Override
+    public EmailTemplate template() {
+        return EmailTemplate.NEW_BOOK;
+    }
+
+    @Override
+    public TemplateModel get(String key) {
+        return switch (key) {
+            case "title" -> new SimpleScalar(title);
+            case "author" -> new SimpleScalar(author);
+            case "year" -> new SimpleNumber(year);
+            case "added" -> new SimpleScalar(added);
+            default -> null;
+        };
+    }
+}
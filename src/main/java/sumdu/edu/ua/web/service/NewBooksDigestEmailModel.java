@@ -0,0 +1,51 @@
+package sumdu.edu.ua.web.service;
+
+import freemarker.template.SimpleNumber;
+import freemarker.template.SimpleScalar;
+import freemarker.template.SimpleSequence;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateModel;
+
+import java.util.List;
+
+/**
+ * Model for {@code new_books_digest.ftl}.
+ * Localized texts are resolved by the caller, so one instance is rendered once per locale.
+ */
+public record NewBooksDigestEmailModel(String heading, String intro, String footer, List<Entry> books)
+        implements EmailModel {
+
+    @Override
+    public EmailTemplate template() {
+        return EmailTemplate.NEW_BOOKS_DIGEST;
+    }
+
+    @Override
+    public TemplateModel get(String key) {
+        return switch (key) {
+            case "heading" -> new SimpleScalar(heading);
+            case "intro" -> new SimpleScalar(intro);
+            case "footer" -> new SimpleScalar(footer);
+            case "books" -> new SimpleSequence(books, null);
+            default -> null;
+        };
+    }
+
+    public record Entry(String title, String author, int year) implements TemplateHashModel {
+
+        @Override
+        public TemplateModel get(String key) {
+            return switch (key) {
+                case "title" -> new SimpleScalar(title);
+                case "author" -> new SimpleScalar(author);
+                case "year" -> new SimpleNumber(year);
+                default -> null;
+            };
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package sumdu.edu.ua.web.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs SMTP sends started on virtual threads on a small pool of platform threads.
+ * Jakarta Mail holds monitors ({@code synchronized} methods of {@code Service} and {@code SMTPTransport})
+ * for the whole connect-and-send exchange, which would pin the carrier thread of a virtual thread
+ * for the length of the SMTP round trips. The calling virtual thread waits on a future instead, which
+ * releases its carrier. Calls from platform threads, such as the digest executor, go straight through.
+ */
+public class PlatformThreadMailSender implements JavaMailSender {
+
+    private final JavaMailSender delegate;
+    private final Executor transportExecutor;
+
+    public PlatformThreadMailSender(JavaMailSender delegate, Executor transportExecutor) {
+        this.delegate = delegate;
+        this.transportExecutor = transportExecutor;
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return delegate.createMimeMessage();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        return delegate.createMimeMessage(contentStream);
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        offload(() -> delegate.send(mimeMessages));
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        offload(() -> delegate.send(simpleMessages));
+    }
+
+    /**
+     * @return the wrapped sender
+     */
+    public JavaMailSender getDelegate() {
+        return delegate;
+    }
+
+    private void offload(Runnable send) {
+        if (!Thread.currentThread().isVirtual()) {
+            send.run();
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(send, transportExecutor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package sumdu.edu.ua.web.service;
+
+/**
+ * Subject and HTML body of an email rendered once and sent to many recipients.
+ */
+public record RenderedEmail(String subject, String html) {
+}
@@ -0,0 +1,38 @@
+package sumdu.edu.ua.web.tracing;
+
+import org.springframework.stereotype.Component;
+import sumdu.edu.ua.persistence.jdbc.SqlFingerprint;
+import sumdu.edu.ua.persistence.jdbc.StatementListener;
+
+import java.util.Locale;
+
+/**
+ * Adds a client span for every JDBC statement executed inside a sampled trace.
+ * The statement text is recorded as its fingerprint, so literal values never reach the trace.
+ */
+@Component
+public class JdbcTracingListener implements StatementListener {
+
+    private final Tracer tracer;
+
+    public JdbcTracingListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void statementExecuted(String sql, long startNanos, long durationNanos, boolean failed) {
+        if (tracer.current() == null) {
+            return;
+        }
+        String statement = SqlFingerprint.of(sql);
+        int space = statement.indexOf(' ');
+        String operation = (space > 0 ? statement.substring(0, space) : statement).toUpperCase(Locale.ROOT);
+
+        Span span = tracer.childAt(operation, Span.Kind.CLIENT, startNanos);
+        span.attribute("db.system", "h2").attribute("db.statement", statement);
+        if (failed) {
+            span.markError();
+        }
+        tracer.end(span, startNanos + durationNanos);
+    }
+}
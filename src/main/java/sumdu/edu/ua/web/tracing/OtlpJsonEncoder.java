@@ -0,0 +1,76 @@
+package sumdu.edu.ua.web.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts spans to the OTLP/JSON {@code ExportTraceServiceRequest} structure accepted by
+ * OpenTelemetry collectors on {@code /v1/traces} and by the collector's file receiver.
+ */
+@Component
+public class OtlpJsonEncoder {
+
+    private static final int STATUS_UNSET = 0;
+    private static final int STATUS_ERROR = 2;
+
+    private final String serviceName;
+
+    public OtlpJsonEncoder(@Value("${spring.application.name:books-catalog}") String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * @return request body ready for JSON serialization
+     */
+    public Map<String, Object> encode(List<Span> spans) {
+        List<Map<String, Object>> encoded = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            encoded.add(encode(span));
+        }
+        return Map.of("resourceSpans", List.of(Map.of(
+                "resource", Map.of("attributes", List.of(attribute("service.name", serviceName))),
+                "scopeSpans", List.of(Map.of(
+                        "scope", Map.of("name", Tracer.class.getPackageName()),
+                        "spans", encoded)))));
+    }
+
+    private Map<String, Object> encode(Span span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            json.put("parentSpanId", span.getParentSpanId());
+        }
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().otlpValue());
+        json.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        json.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        List<Map<String, Object>> attributes = new ArrayList<>(span.getAttributes().size());
+        for (Span.Attribute attribute : span.getAttributes()) {
+            attributes.add(attribute(attribute.key(), attribute.value()));
+        }
+        json.put("attributes", attributes);
+        json.put("status", Map.of("code", span.isError() ? STATUS_ERROR : STATUS_UNSET));
+        return json;
+    }
+
+    private static Map<String, Object> attribute(String key, Object value) {
+        Map<String, Object> typed;
+        if (value instanceof Long || value instanceof Integer) {
+            // OTLP/JSON encodes 64-bit integers as strings
+            typed = Map.of("intValue", value.toString());
+        } else if (value instanceof Number number) {
+            typed = Map.of("doubleValue", number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            typed = Map.of("boolValue", bool);
+        } else {
+            typed = Map.of("stringValue", value.toString());
+        }
+        return Map.of("key", key, "value", typed);
+    }
+}
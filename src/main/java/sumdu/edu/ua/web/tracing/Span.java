@@ -0,0 +1,128 @@
+package sumdu.edu.ua.web.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One timed operation of a trace. Created and ended on a single thread by {@link Tracer};
+ * read by exporters only after it has been published to the {@link SpanRingBuffer}.
+ */
+public final class Span {
+
+    /** OTLP span kinds. */
+    public enum Kind {
+        INTERNAL(1), SERVER(2), CLIENT(3);
+
+        private final int otlpValue;
+
+        Kind(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+
+        public int otlpValue() {
+            return otlpValue;
+        }
+    }
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final Kind kind;
+    private final Span parent;
+    private final long epochOffsetNanos;
+    private final long startNanos;
+    private final List<Attribute> attributes = new ArrayList<>(4);
+    private String name;
+    private long endNanos;
+    private boolean error;
+    long sequence = -1;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, Kind kind, Span parent,
+         long epochOffsetNanos, long startNanos) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.parent = parent;
+        this.epochOffsetNanos = epochOffsetNanos;
+        this.startNanos = startNanos;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (value != null) {
+            attributes.add(new Attribute(key, value));
+        }
+        return this;
+    }
+
+    public void rename(String name) {
+        this.name = name;
+    }
+
+    public void markError() {
+        this.error = true;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return parent span id, or {@code null} for a root span
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getStartEpochNanos() {
+        return epochOffsetNanos + startNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return epochOffsetNanos + endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public List<Attribute> getAttributes() {
+        return Collections.unmodifiableList(attributes);
+    }
+
+    Span parent() {
+        return parent;
+    }
+
+    long epochOffsetNanos() {
+        return epochOffsetNanos;
+    }
+
+    void end(long endNanos) {
+        this.endNanos = endNanos;
+    }
+
+    /**
+     * Span attribute; values are strings, numbers or booleans.
+     */
+    public record Attribute(String key, Object value) {
+    }
+}
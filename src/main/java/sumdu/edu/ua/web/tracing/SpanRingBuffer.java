@@ -0,0 +1,60 @@
+package sumdu.edu.ua.web.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size buffer of finished spans. Writers never block; when the buffer is full the oldest
+ * spans are overwritten and readers skip them.
+ */
+public class SpanRingBuffer {
+
+    private final AtomicReferenceArray<Span> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param capacity maximum number of retained spans, rounded up to a power of two
+     */
+    public SpanRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void publish(Span span) {
+        long sequence = next.getAndIncrement();
+        span.sequence = sequence;
+        slots.set((int) (sequence & mask), span);
+    }
+
+    /**
+     * @return sequence number the next published span will get
+     */
+    public long position() {
+        return next.get();
+    }
+
+    /**
+     * @param fromSequence first sequence to read, older spans that were overwritten are skipped
+     * @param toSequence sequence after the last span to read, usually {@link #position()}
+     * @return spans still in the buffer in publication order
+     */
+    public List<Span> read(long fromSequence, long toSequence) {
+        long from = Math.max(fromSequence, toSequence - slots.length());
+        List<Span> spans = new ArrayList<>((int) Math.max(0, toSequence - from));
+        for (long sequence = from; sequence < toSequence; sequence++) {
+            Span span = slots.get((int) (sequence & mask));
+            if (span != null && span.sequence == sequence) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,114 @@
+package sumdu.edu.ua.web.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically exports spans published since the previous run, as one OTLP/JSON request per run,
+ * to a local file ({@code app.tracing.export.file}, one request per line) and/or an OTLP/HTTP
+ * collector ({@code app.tracing.export.endpoint}, e.g. {@code http://localhost:4318/v1/traces}).
+ * Spans overwritten in the ring buffer between runs are lost.
+ */
+@Component
+public class TraceExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceExporter.class);
+
+    private final Tracer tracer;
+    private final OtlpJsonEncoder encoder;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    /** A lock rather than a monitor: the export does blocking I/O and may run on a virtual thread. */
+    private final ReentrantLock exportLock = new ReentrantLock();
+    private long exported;
+
+    public TraceExporter(Tracer tracer, OtlpJsonEncoder encoder, ObjectMapper objectMapper,
+                         @Value("${app.tracing.export.file:}") String file,
+                         @Value("${app.tracing.export.endpoint:}") String endpoint) {
+        this.tracer = tracer;
+        this.encoder = encoder;
+        this.objectMapper = objectMapper;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.endpoint = endpoint.isBlank() ? null : URI.create(endpoint);
+        this.httpClient = this.endpoint == null ? null
+                : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tracing.export.interval:PT10S}")
+    public void export() {
+        if (file == null && endpoint == null) {
+            return;
+        }
+        exportLock.lock();
+        try {
+            long position = tracer.buffer().position();
+            List<Span> spans = tracer.buffer().read(exported, position);
+            exported = position;
+            if (spans.isEmpty()) {
+                return;
+            }
+
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(encoder.encode(spans));
+            } catch (IOException e) {
+                log.warn("Failed to encode {} spans", spans.size(), e);
+                return;
+            }
+            if (file != null) {
+                writeToFile(body, spans.size());
+            }
+            if (endpoint != null) {
+                sendToCollector(body, spans.size());
+            }
+        } finally {
+            exportLock.unlock();
+        }
+    }
+
+    private void writeToFile(byte[] body, int count) {
+        try {
+            Files.write(file, body, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            Files.write(file, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Failed to write {} spans to {}: {}", count, file, e.getMessage());
+        }
+    }
+
+    private void sendToCollector(byte[] body, int count) {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                log.warn("Collector rejected {} spans with status {}", count, response.statusCode());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to send {} spans to {}: {}", count, endpoint, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
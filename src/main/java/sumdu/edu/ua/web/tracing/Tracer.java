@@ -0,0 +1,162 @@
+package sumdu.edu.ua.web.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process tracer. A trace is started per sampled HTTP request and child spans are
+ * attached to the span current on the thread; finished spans go to a {@link SpanRingBuffer}.
+ * For requests that are not sampled every call returns {@code null} after one thread-local read.
+ */
+@Component
+public class Tracer {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final double sampleRate;
+    private final SpanRingBuffer buffer;
+
+    public Tracer(@Value("${app.tracing.sample-rate:0.01}") double sampleRate,
+                  @Value("${app.tracing.buffer-size:4096}") int bufferSize) {
+        this.sampleRate = sampleRate;
+        this.buffer = new SpanRingBuffer(bufferSize);
+    }
+
+    /**
+     * Starts a root span if the request is sampled. An incoming W3C {@code traceparent} header
+     * supplies the trace id and parent, and forces sampling when its sampled flag is set.
+     *
+     * @param name span name
+     * @param traceparent value of the {@code traceparent} header, may be {@code null}
+     * @return the started span, or {@code null} if the request is not sampled
+     */
+    public Span startTrace(String name, String traceparent) {
+        String traceId = null;
+        String parentId = null;
+        boolean sampled = false;
+        if (traceparent != null) {
+            var matcher = TRACEPARENT.matcher(traceparent.trim());
+            if (matcher.matches() && !matcher.group(1).equals(INVALID_TRACE_ID)) {
+                traceId = matcher.group(1);
+                parentId = matcher.group(2);
+                sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+            }
+        }
+        if (!sampled && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        if (traceId == null) {
+            traceId = randomHex(2);
+        }
+        long epochOffset = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+        return push(new Span(traceId, randomHex(1), parentId, name, Span.Kind.SERVER, null,
+                epochOffset, System.nanoTime()));
+    }
+
+    /**
+     * Starts a child of the current span.
+     *
+     * @return the started span, or {@code null} if there is no sampled trace on this thread
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        Span parent = current.get();
+        if (parent == null) {
+            return null;
+        }
+        return push(new Span(parent.getTraceId(), randomHex(1), parent.getSpanId(), name, kind, parent,
+                parent.epochOffsetNanos(), System.nanoTime()));
+    }
+
+    /**
+     * Creates a child of the current span for an operation timed by the caller. The span is not made
+     * current and must be passed to {@link #end(Span, long)}.
+     *
+     * @return the span, or {@code null} if there is no sampled trace on this thread
+     */
+    public Span childAt(String name, Span.Kind kind, long startNanos) {
+        Span parent = current.get();
+        if (parent == null) {
+            return null;
+        }
+        return new Span(parent.getTraceId(), randomHex(1), parent.getSpanId(), name, kind, parent,
+                parent.epochOffsetNanos(), startNanos);
+    }
+
+    /**
+     * Ends the span, publishes it and makes its parent current again.
+     */
+    public void end(Span span) {
+        end(span, System.nanoTime());
+    }
+
+    /**
+     * Ends the span at the given {@link System#nanoTime()} value.
+     */
+    public void end(Span span, long endNanos) {
+        span.end(endNanos);
+        buffer.publish(span);
+        if (current.get() == span) {
+            if (span.parent() == null) {
+                current.remove();
+            } else {
+                current.set(span.parent());
+            }
+        }
+    }
+
+    /**
+     * @return the task, run with the span current on this thread as its current span, so that spans
+     *         started by the task on another thread join the trace
+     */
+    public Runnable wrap(Runnable task) {
+        Span parent = current.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = current.get();
+            current.set(parent);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return span current on this thread, or {@code null}
+     */
+    public Span current() {
+        return current.get();
+    }
+
+    public SpanRingBuffer buffer() {
+        return buffer;
+    }
+
+    private Span push(Span span) {
+        current.set(span);
+        return span;
+    }
+
+    private static String randomHex(int longs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(longs * 16);
+        for (int i = 0; i < longs; i++) {
+            String part = Long.toHexString(random.nextLong());
+            hex.append("0".repeat(16 - part.length())).append(part);
+        }
+        return hex.toString();
+    }
+}
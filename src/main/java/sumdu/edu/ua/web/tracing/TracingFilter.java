@@ -0,0 +1,57 @@
+package sumdu.edu.ua.web.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Starts the root span of a sampled request. Runs before Spring Security so that
+ * authentication time is part of the trace.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.startTrace(request.getMethod(), request.getHeader("traceparent"));
+        if (span == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.markError();
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.rename(request.getMethod() + " " + pattern);
+                span.attribute("http.route", pattern.toString());
+            }
+            span.attribute("http.request.method", request.getMethod())
+                    .attribute("url.path", request.getRequestURI())
+                    .attribute("http.response.status_code", (long) response.getStatus());
+            if (response.getStatus() >= 500) {
+                span.markError();
+            }
+            tracer.end(span);
+        }
+    }
+}
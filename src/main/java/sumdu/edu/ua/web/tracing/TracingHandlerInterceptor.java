@@ -0,0 +1,46 @@
+package sumdu.edu.ua.web.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Adds a span for view rendering: from {@code postHandle} (handler finished) to {@code afterCompletion}
+ * (view rendered). Lazy loads triggered by templates appear as its children.
+ */
+@Component
+public class TracingHandlerInterceptor implements HandlerInterceptor {
+
+    private static final String VIEW_SPAN = TracingHandlerInterceptor.class.getName() + ".VIEW_SPAN";
+
+    private final Tracer tracer;
+
+    public TracingHandlerInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || tracer.current() == null) {
+            return;
+        }
+        String view = modelAndView.getViewName() != null ? modelAndView.getViewName() : "view";
+        Span span = tracer.startSpan("render " + view, Span.Kind.INTERNAL);
+        request.setAttribute(VIEW_SPAN, span);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(VIEW_SPAN) instanceof Span span) {
+            request.removeAttribute(VIEW_SPAN);
+            if (ex != null) {
+                span.markError();
+            }
+            tracer.end(span);
+        }
+    }
+}
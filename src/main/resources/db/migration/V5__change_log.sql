@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS change_log (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  entity VARCHAR(16) NOT NULL,
+  entity_id BIGINT NOT NULL,
+  node VARCHAR(36) NOT NULL,
+  changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_change_log_changed_at ON change_log(changed_at);
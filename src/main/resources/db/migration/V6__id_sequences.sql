@@ -0,0 +1,17 @@
+-- Ids come from sequences that Hibernate reads in blocks of 50 (pooled-lo), so inserts can be batched.
+-- Each sequence starts after the ids in use; the identity columns become plain columns that default to
+-- the next sequence value, so inserts without an id keep working (each one takes a block of its own).
+CREATE SEQUENCE IF NOT EXISTS books_seq INCREMENT BY 50;
+ALTER SEQUENCE books_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM books);
+ALTER TABLE books ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE books ALTER COLUMN id SET DEFAULT NEXT VALUE FOR books_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM comments);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
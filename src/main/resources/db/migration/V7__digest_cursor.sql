@@ -0,0 +1,8 @@
+-- How far the new books digest has been sent, and which instance holds the lease to send the next window
+CREATE TABLE IF NOT EXISTS digest_cursor (
+  name VARCHAR(32) PRIMARY KEY,
+  sent_until TIMESTAMP NOT NULL,
+  lease_owner VARCHAR(36),
+  lease_until TIMESTAMP
+);
+INSERT INTO digest_cursor (name, sent_until) VALUES ('new_books', CURRENT_TIMESTAMP);
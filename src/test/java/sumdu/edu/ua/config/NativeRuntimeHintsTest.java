@@ -0,0 +1,44 @@
+package sumdu.edu.ua.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import sumdu.edu.ua.persistence.entity.BookEntity;
+import sumdu.edu.ua.persistence.jdbc.RequestStatementCounter;
+import sumdu.edu.ua.web.aop.JfrEventAspect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_includesMigrationsTemplatesStylesAndMessages() {
+        for (String resource : new String[]{"db/migration/V1__init.sql", "mail-templates/new_book.ftl",
+                "templates/books.html", "templates/fragments/header.html", "static/css/books.css", "application.conf",
+                "messages_en.properties"}) {
+            assertTrue(RuntimeHintsPredicates.resource().forResource(resource).test(hints), resource);
+        }
+    }
+
+    @Test
+    void registerHints_coversReflectiveAccessOutsideBeanDefinitions() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BookEntity.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(JfrEventAspect.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RequestStatementCounter.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class).test(hints));
+    }
+}
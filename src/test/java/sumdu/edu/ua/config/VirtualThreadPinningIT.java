@@ -0,0 +1,155 @@
+package sumdu.edu.ua.config;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.core.port.CommentRepositoryPort;
+import sumdu.edu.ua.web.service.PlatformThreadMailSender;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records {@code jdk.VirtualThreadPinned} events, without a duration threshold, while the catalog, comment
+ * and mail paths run on virtual threads.
+ */
+@SpringBootTest(classes = AppInit.class, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:pinning;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"})
+@ActiveProfiles("test")
+class VirtualThreadPinningIT {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    @Autowired
+    private CatalogRepositoryPort catalog;
+
+    @Autowired
+    private CommentRepositoryPort comments;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void catalogAndCommentCalls_onVirtualThreads_doNotPinCarriers() throws Exception {
+        long bookId = catalog.add("Pinning", "Author", 2024).getId();
+
+        List<RecordedEvent> pinned = recordPinned(() -> {
+            for (int i = 0; i < 20; i++) {
+                catalog.search("Pin", new PageRequest(0, 20, "title", false));
+                catalog.findById(bookId);
+                comments.add(bookId, "admin@example.com", "Comment " + i);
+                comments.list(bookId, null, null, new PageRequest(0, 20));
+            }
+        });
+
+        assertTrue(pinned.isEmpty(), () -> "Pinned at:\n" + describe(pinned));
+    }
+
+    @Test
+    void mailSend_onVirtualThread_runsTransportOnPlatformThread() throws Exception {
+        assertInstanceOf(PlatformThreadMailSender.class, mailSender);
+        MonitorHoldingTransport transport = new MonitorHoldingTransport();
+
+        List<RecordedEvent> direct = recordPinned(() -> transport.send(new SimpleMailMessage()));
+        assertFalse(direct.isEmpty(), "a send holding a monitor should pin when called on a virtual thread");
+
+        try (ExecutorService platformThreads = Executors.newFixedThreadPool(2)) {
+            PlatformThreadMailSender sender = new PlatformThreadMailSender(transport, platformThreads);
+            List<RecordedEvent> offloaded = recordPinned(() -> sender.send(new SimpleMailMessage()));
+            assertTrue(offloaded.isEmpty(), () -> "Pinned at:\n" + describe(offloaded));
+        }
+        assertEquals(2 * 8, transport.sends);
+    }
+
+    private List<RecordedEvent> recordPinned(Runnable task) throws Exception {
+        Path file = tempDir.resolve("pinning-" + System.nanoTime() + ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED).withoutThreshold().withStackTrace();
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = IntStream.range(0, 8)
+                        .mapToObj(i -> executor.submit(task))
+                        .collect(Collectors.toList());
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(PINNED))
+                .toList();
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.stream()
+                .map(e -> e.getStackTrace() == null ? "?" : e.getStackTrace().getFrames().stream()
+                        .limit(12)
+                        .map(RecordedFrame::getMethod)
+                        .map(m -> m.getType().getName() + "." + m.getName())
+                        .collect(Collectors.joining("\n  ")))
+                .distinct()
+                .collect(Collectors.joining("\n\n"));
+    }
+
+    /**
+     * Blocks while holding a monitor, as Jakarta Mail's SMTP transport does for the whole exchange.
+     */
+    private static final class MonitorHoldingTransport implements JavaMailSender {
+        private int sends;
+
+        @Override
+        public synchronized void send(SimpleMailMessage... simpleMessages) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sends++;
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return new MimeMessage((Session) null);
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package sumdu.edu.ua.core.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import sumdu.edu.ua.core.domain.Book;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void get_secondRead_servedFromCache() {
+        BookCache cache = new BookCache(registry, 100, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        LongFunction<Book> loader = id -> {
+            loads.incrementAndGet();
+            return new Book(id, "Title", "Author", 2020);
+        };
+
+        cache.get(1, loader);
+        Book cached = cache.get(1, loader);
+
+        assertEquals("Title", cached.getTitle());
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_unknownId_cachedAsAbsentUntilTtlExpires() throws InterruptedException {
+        BookCache cache = new BookCache(registry, 100, 100, Duration.ofMillis(50));
+        AtomicInteger loads = new AtomicInteger();
+        LongFunction<Book> loader = id -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertNull(cache.get(9, loader));
+        assertNull(cache.get(9, loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("app.book-cache.negative-hits").functionCounter().count());
+
+        Thread.sleep(60);
+        assertNull(cache.get(9, loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void put_replacesCachedAbsence() {
+        BookCache cache = new BookCache(registry, 100, 100, Duration.ofMinutes(1));
+        cache.get(3, id -> null);
+
+        cache.put(new Book(3, "Added", "Author", 2021));
+
+        assertEquals("Added", cache.get(3, id -> fail("book should be cached")).getTitle());
+    }
+
+    @Test
+    void put_fullCache_evictsUnreadBooks() {
+        BookCache cache = new BookCache(registry, 10, 10, Duration.ofMinutes(1));
+        cache.put(new Book(1, "Hot", "Author", 2020));
+        for (long id = 2; id <= 100; id++) {
+            cache.get(1, key -> fail("read book should stay cached"));
+            cache.put(new Book(id, "Cold", "Author", 2020));
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertEquals(90, registry.get("cache.evictions").functionCounter().count());
+    }
+}
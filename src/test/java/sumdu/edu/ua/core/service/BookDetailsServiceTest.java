@@ -0,0 +1,142 @@
+package sumdu.edu.ua.core.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import sumdu.edu.ua.config.LookupConfig;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.BookDetails;
+import sumdu.edu.ua.core.domain.Comment;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.exception.LookupTimeoutException;
+import sumdu.edu.ua.core.port.CommentRepositoryPort;
+import sumdu.edu.ua.web.tracing.Tracer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisabledInNativeImage // Mockito generates mock classes at runtime
+class BookDetailsServiceTest {
+
+    private static final PageRequest FIRST_PAGE = new PageRequest(0, 20);
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private CommentRepositoryPort commentRepo;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new LookupConfig().lookupExecutor(4, new Tracer(0, 16));
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findById_runsReadsConcurrentlyWithCallerSecurityContext() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("reader@example.com", null, List.of()));
+        CountDownLatch allStarted = new CountDownLatch(3);
+        AtomicReference<String> principal = new AtomicReference<>();
+        Comment comment = new Comment(5, 1, 2, "Title", "reader@example.com", "Nice", Instant.now());
+        when(bookService.findById(1)).thenAnswer(inv -> {
+            principal.set(SecurityContextHolder.getContext().getAuthentication().getName());
+            awaitOthers(allStarted);
+            return new Book(1, "Title", "Author", 2020);
+        });
+        when(commentRepo.listItems(1, null, null, FIRST_PAGE)).thenAnswer(inv -> {
+            awaitOthers(allStarted);
+            return List.of(comment);
+        });
+        when(commentRepo.count(1, null, null)).thenAnswer(inv -> {
+            awaitOthers(allStarted);
+            return 41L;
+        });
+
+        BookDetails details = service(Duration.ofSeconds(5)).findById(1, FIRST_PAGE);
+
+        assertEquals("Title", details.getBook().getTitle());
+        assertEquals(List.of(comment), details.getComments().getItems());
+        assertEquals(41, details.getComments().getTotal());
+        assertEquals("reader@example.com", principal.get());
+    }
+
+    @Test
+    void findById_missingBook_returnsNull() {
+        when(bookService.findById(7)).thenReturn(null);
+        when(commentRepo.listItems(7, null, null, FIRST_PAGE)).thenReturn(List.of());
+        when(commentRepo.count(7, null, null)).thenReturn(0L);
+
+        assertNull(service(Duration.ofSeconds(5)).findById(7, FIRST_PAGE));
+    }
+
+    @Test
+    void findById_slowRead_throwsLookupTimeoutException() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookService.findById(1)).thenReturn(new Book(1, "Title", "Author", 2020));
+        when(commentRepo.listItems(1, null, null, FIRST_PAGE)).thenReturn(List.of());
+        when(commentRepo.count(1, null, null)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+
+        try {
+            assertThrows(LookupTimeoutException.class,
+                    () -> service(Duration.ofMillis(50)).findById(1, FIRST_PAGE));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void findById_failedRead_rethrowsWithoutWaitingForOthers() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookService.findById(1)).thenThrow(new IllegalStateException("connection refused"));
+        lenient().when(commentRepo.listItems(eq(1L), any(), any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        lenient().when(commentRepo.count(1, null, null)).thenReturn(0L);
+
+        try {
+            IllegalStateException e = assertTimeout(Duration.ofSeconds(2), () -> assertThrows(
+                    IllegalStateException.class, () -> service(Duration.ofSeconds(5)).findById(1, FIRST_PAGE)));
+            assertEquals("connection refused", e.getMessage());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private BookDetailsService service(Duration timeout) {
+        return new BookDetailsService(bookService, commentRepo, executor, timeout);
+    }
+
+    private static void awaitOthers(CountDownLatch latch) throws InterruptedException {
+        latch.countDown();
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "reads did not run concurrently");
+    }
+}
@@ -0,0 +1,46 @@
+package sumdu.edu.ua.core.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.Book;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = AppInit.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:bookservice;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class BookServiceIT {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private TransactionTemplate transactions;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void addBook_committed_isCached() {
+        Book book = bookService.addBook("Cached", "Author", 2024);
+
+        assertSame(book, bookCache.get(book.getId(), id -> null));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void addBook_rolledBack_isNotCached() {
+        Book book = transactions.execute(status -> {
+            status.setRollbackOnly();
+            return bookService.addBook("Rolled back", "Author", 2024);
+        });
+
+        assertNull(bookCache.get(book.getId(), id -> null));
+    }
+}
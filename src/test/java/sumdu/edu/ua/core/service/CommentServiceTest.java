@@ -2,6 +2,7 @@ package sumdu.edu.ua.core.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
+@DisabledInNativeImage // Mockito generates mock classes at runtime
 class CommentServiceTest {
 
     @Mock
@@ -30,7 +32,7 @@ class CommentServiceTest {
 
     @BeforeEach
     void setUp() {
-        commentService = new CommentService(commentRepositoryPort, commentRepository);
+        commentService = new CommentService(commentRepositoryPort, commentRepository, new ContentVersions());
     }
 
     @Test
@@ -0,0 +1,181 @@
+package sumdu.edu.ua.core.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.web.service.RenderedEmail;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Digest windows end ten seconds before the run here and list at most two books; books are inserted with
+ * the creation time under test.
+ */
+@SpringBootTest(classes = AppInit.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:digest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.notifications.digest.settle-time=PT10S",
+        "app.notifications.digest.max-books=2"})
+@ActiveProfiles("test")
+@DisabledInAotMode // @MockBean replaces beans at runtime, which AOT-processed contexts cannot do
+class NewBookDigestServiceIT {
+
+    private static final String ADMIN = "admin@example.com";
+
+    @Autowired
+    private NewBookDigestService digestService;
+
+    @Autowired
+    private NewBookSubscriptionService subscriptionService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockBean
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        jdbc.update("UPDATE books SET created_at = ?", Timestamp.from(now.minus(Duration.ofHours(2))));
+        jdbc.update("UPDATE digest_cursor SET sent_until = ?, lease_owner = NULL, lease_until = NULL",
+                Timestamp.from(now.minus(Duration.ofHours(1))));
+        jdbc.update("DELETE FROM new_book_subscriptions");
+        subscriptionService.subscribe(ADMIN, Locale.ENGLISH);
+        when(emailService.isMailConfigured()).thenReturn(true);
+        when(emailService.renderNewBooksDigest(any(), anyLong(), any())).thenReturn(new RenderedEmail("subject", "html"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendPendingDigest_sendsSettledBooksOnce_leavesCommittingBooksForNextWindow() throws Exception {
+        insertBook("Settled", Duration.ofSeconds(30));
+        Instant committing = insertBook("Committing", Duration.ofSeconds(1));
+
+        digestService.sendPendingDigest();
+        digestService.sendPendingDigest();
+
+        ArgumentCaptor<List<Book>> books = ArgumentCaptor.forClass(List.class);
+        verify(emailService, times(1)).renderNewBooksDigest(books.capture(), eq(1L), eq(Locale.ENGLISH));
+        assertEquals(List.of("Settled"), books.getValue().stream().map(Book::getTitle).toList());
+        verify(emailService).sendToRecipients(any(), eq(List.of(ADMIN)));
+        assertTrue(sentUntil().isBefore(committing), "the committing book is left for the next window");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendPendingDigest_moreBooksThanMax_listsNewestWithTotal() {
+        insertBook("First", Duration.ofSeconds(50));
+        insertBook("Second", Duration.ofSeconds(40));
+        insertBook("Third", Duration.ofSeconds(30));
+
+        digestService.sendPendingDigest();
+
+        ArgumentCaptor<List<Book>> books = ArgumentCaptor.forClass(List.class);
+        verify(emailService).renderNewBooksDigest(books.capture(), eq(3L), eq(Locale.ENGLISH));
+        assertEquals(List.of("Third", "Second"), books.getValue().stream().map(Book::getTitle).toList());
+    }
+
+    @Test
+    void sendPendingDigest_mailNotConfigured_sendsWindowAgainLater() throws Exception {
+        Instant before = sentUntil();
+        insertBook("Settled", Duration.ofSeconds(30));
+        when(emailService.isMailConfigured()).thenReturn(false);
+
+        digestService.sendPendingDigest();
+
+        assertEquals(before, sentUntil());
+        when(emailService.isMailConfigured()).thenReturn(true);
+        digestService.sendPendingDigest();
+        verify(emailService).sendToRecipients(any(), eq(List.of(ADMIN)));
+    }
+
+    @Test
+    void sendPendingDigest_chunkFails_sendsWindowAgainLater() throws Exception {
+        Instant before = sentUntil();
+        insertBook("Settled", Duration.ofSeconds(30));
+        doThrow(new IllegalStateException("SMTP down")).doNothing().when(emailService).sendToRecipients(any(), any());
+
+        digestService.sendPendingDigest();
+
+        assertEquals(before, sentUntil());
+        digestService.sendPendingDigest();
+        verify(emailService, times(2)).sendToRecipients(any(), eq(List.of(ADMIN)));
+        assertTrue(sentUntil().isAfter(before));
+    }
+
+    @Test
+    void sendPendingDigest_leaseHeldByOtherInstance_sendsNothing() {
+        Instant before = sentUntil();
+        jdbc.update("UPDATE digest_cursor SET lease_owner = 'other', lease_until = ?",
+                Timestamp.from(Instant.now().plus(Duration.ofMinutes(5))));
+        insertBook("Settled", Duration.ofSeconds(30));
+
+        digestService.sendPendingDigest();
+
+        verify(emailService, never()).renderNewBooksDigest(any(), anyLong(), any());
+        assertEquals(before, sentUntil());
+    }
+
+    @Test
+    void sendPendingDigest_expiredLease_sendsBooksAddedWhileNoInstanceSent() {
+        jdbc.update("UPDATE digest_cursor SET lease_owner = 'stopped', lease_until = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(5))));
+        insertBook("Added while down", Duration.ofMinutes(30));
+
+        digestService.sendPendingDigest();
+
+        verify(emailService).renderNewBooksDigest(any(), anyLong(), eq(Locale.ENGLISH));
+    }
+
+    @Test
+    void sendPendingDigest_rendersInSubscriptionLocale() {
+        subscriptionService.subscribe(ADMIN, Locale.forLanguageTag("uk"));
+        insertBook("Settled", Duration.ofSeconds(30));
+
+        digestService.sendPendingDigest();
+
+        verify(emailService).renderNewBooksDigest(any(), anyLong(), eq(Locale.forLanguageTag("uk")));
+        verify(emailService, never()).renderNewBooksDigest(any(), anyLong(), eq(Locale.ENGLISH));
+    }
+
+    @Test
+    void sendPendingDigest_afterUnsubscribe_sendsNothing() throws Exception {
+        subscriptionService.unsubscribe(ADMIN);
+        insertBook("Settled", Duration.ofSeconds(30));
+
+        digestService.sendPendingDigest();
+
+        assertFalse(subscriptionService.isSubscribed(ADMIN));
+        verify(emailService, never()).sendToRecipients(any(), any());
+    }
+
+    private Instant insertBook(String title, Duration age) {
+        Instant createdAt = Instant.now().minus(age);
+        jdbc.update("INSERT INTO books (id, title, author, pub_year, created_at) "
+                        + "VALUES (NEXT VALUE FOR books_seq, ?, 'Author', 2020, ?)",
+                title, Timestamp.from(createdAt));
+        return createdAt;
+    }
+
+    private Instant sentUntil() {
+        return jdbc.queryForObject("SELECT sent_until FROM digest_cursor", Timestamp.class).toInstant();
+    }
+}
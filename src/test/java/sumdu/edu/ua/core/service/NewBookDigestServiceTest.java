@@ -0,0 +1,42 @@
+package sumdu.edu.ua.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewBookDigestServiceTest {
+
+    @Test
+    void rateLimiter_spacesPermitsByInterval() throws InterruptedException {
+        NewBookDigestService.RateLimiter limiter = new NewBookDigestService.RateLimiter(20);
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        long first = System.nanoTime() - start;
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(first < TimeUnit.MILLISECONDS.toNanos(25), "first permit waited " + first + " ns");
+        // four intervals of 50 ms after the first permit
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(190), "five permits took " + elapsed + " ns");
+    }
+
+    @Test
+    void rateLimiter_afterIdleTime_doesNotAllowBurst() throws InterruptedException {
+        NewBookDigestService.RateLimiter limiter = new NewBookDigestService.RateLimiter(20);
+        limiter.acquire();
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(95), "three permits took " + elapsed + " ns");
+    }
+}
@@ -0,0 +1,64 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sumdu.edu.ua.core.domain.Book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeTo_thenOpen_readsBooksBackInIdOrder() throws IOException {
+        Instant takenAt = Instant.parse("2024-05-01T10:00:00Z");
+        CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer();
+        for (int i = 1; i <= 3000; i++) {
+            // ids with gaps, as left by sequence blocks; 30 authors shared by 100 books each
+            writer.add(i * 50L, "Title " + i, "Автор " + (i % 30), 1900 + i % 120);
+        }
+        Path file = dir.resolve("catalog.snapshot");
+
+        writer.writeTo(file, takenAt);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(takenAt, snapshot.takenAt());
+        assertEquals(3000, snapshot.size());
+        assertEquals(150_000, snapshot.maxId());
+        Book first = snapshot.book(0);
+        assertEquals(50, first.getId());
+        assertEquals("Title 1", first.getTitle());
+        assertEquals("Автор 1", first.getAuthor());
+        assertEquals(1901, first.getPubYear());
+        List<Book> newest = snapshot.newest(2);
+        assertEquals(List.of(150_000L, 149_950L), newest.stream().map(Book::getId).toList());
+        // each author is stored once, and each id delta of 50 takes one byte
+        assertTrue(Files.size(file) < 3000 * 16 + 60_000, "size: " + Files.size(file));
+    }
+
+    @Test
+    void open_otherVersion_throws() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        Files.write(file, ByteBuffer.allocate(24).putInt(CatalogSnapshot.MAGIC).putInt(99).array());
+
+        IOException e = assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+        assertTrue(e.getMessage().contains("version 99"));
+    }
+
+    @Test
+    void add_idNotAscending_throws() {
+        CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer();
+        writer.add(10, "A", "B", 2000);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.add(10, "C", "D", 2001));
+    }
+}
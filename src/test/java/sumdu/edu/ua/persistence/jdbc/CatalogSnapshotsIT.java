@@ -0,0 +1,80 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.service.BookCache;
+import sumdu.edu.ua.core.service.BookService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The snapshot is written to a temporary directory; the test changes rows behind the application's back
+ * to tell books read from the snapshot from books read from the database.
+ */
+@SpringBootTest(classes = AppInit.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:catalogsnapshots;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class CatalogSnapshotsIT {
+
+    @Autowired
+    private CatalogSnapshots snapshots;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("catalog-snapshots");
+        registry.add("app.catalog-snapshot.path", () -> dir.resolve("catalog.snapshot").toString());
+    }
+
+    @Test
+    void write_thenOpen_hasEveryBookInIdOrder() throws IOException {
+        snapshots.write();
+        CatalogSnapshot snapshot = snapshots.open();
+
+        assertNotNull(snapshot);
+        assertEquals(jdbc.queryForObject("SELECT COUNT(*) FROM books", Integer.class), snapshot.size());
+        assertEquals(jdbc.queryForObject("SELECT MAX(id) FROM books", Long.class), snapshot.maxId());
+        Book first = snapshot.book(0);
+        assertEquals(jdbc.queryForObject("SELECT title FROM books WHERE id = ?", String.class, first.getId()),
+                first.getTitle());
+        assertEquals(jdbc.queryForObject("SELECT MIN(id) FROM books", Long.class), first.getId());
+    }
+
+    @Test
+    void warmUpCache_withSnapshot_readsOnlyBooksBeyondItFromDatabase() throws IOException {
+        snapshots.write();
+        CatalogSnapshot snapshot = snapshots.open();
+        long newestInSnapshot = snapshot.maxId();
+        String title = snapshot.book(snapshot.size() - 1).getTitle();
+        jdbc.update("UPDATE books SET title = 'Renamed' WHERE id = ?", newestInSnapshot);
+        jdbc.update("INSERT INTO books (id, title, author, pub_year) "
+                + "VALUES (NEXT VALUE FOR books_seq, 'After snapshot', 'Author', 2024)");
+        long added = jdbc.queryForObject("SELECT MAX(id) FROM books", Long.class);
+        bookCache.evict(newestInSnapshot);
+        bookCache.evict(added);
+
+        bookService.warmUpCache();
+
+        assertEquals(title, bookCache.get(newestInSnapshot, id -> null).getTitle());
+        assertEquals("After snapshot", bookCache.get(added, id -> null).getTitle());
+    }
+}
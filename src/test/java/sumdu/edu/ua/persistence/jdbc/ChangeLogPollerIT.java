@@ -0,0 +1,134 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.core.service.BookService;
+import sumdu.edu.ua.core.service.ContentVersions;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Changes of another instance, written straight into the shared tables, reach this instance's caches.
+ */
+@SpringBootTest(classes = AppInit.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changelog;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.change-log.poll-interval=PT1H",
+        "app.change-log.gap-timeout=PT1H"})
+@ActiveProfiles("test")
+class ChangeLogPollerIT {
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Autowired
+    private ChangeLogPoller poller;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogRepositoryPort bookRepo;
+
+    @Autowired
+    private ContentVersions versions;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        // the JCache caches are shared by all test contexts in the JVM, which use other databases
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        poller.poll();
+    }
+
+    @Test
+    void poll_bookAddedByOtherNode_replacesCachedAbsence() {
+        long id = jdbc.queryForObject("SELECT NEXT VALUE FOR books_seq", Long.class);
+        assertNull(bookService.findById(id));
+        long catalog = versions.catalog();
+
+        jdbc.update("INSERT INTO books (id, title, author, pub_year) VALUES (?, 'Remote', 'Author', 2024)", id);
+        insertChange("BOOK", id);
+        poller.poll();
+
+        Book book = bookService.findById(id);
+        assertNotNull(book);
+        assertEquals("Remote", book.getTitle());
+        assertEquals(catalog + 1, versions.catalog());
+    }
+
+    @Test
+    void poll_ownChange_notAppliedAgain() {
+        long catalog = versions.catalog();
+        long watermark = poller.watermark();
+
+        bookRepo.add("Local", "Author", 2024);
+        poller.poll();
+
+        assertEquals(catalog, versions.catalog());
+        assertEquals(watermark + 1, poller.watermark());
+    }
+
+    @Test
+    void poll_idCommittedOutOfOrder_watermarkWaitsAndEachChangeAppliedOnce() {
+        long watermark = poller.watermark();
+        long comments = versions.comments(1);
+        // the first row is deleted and written again below, as if its transaction committed later
+        insertChange("COMMENTS", 1);
+        insertChange("COMMENTS", 1);
+        jdbc.update("DELETE FROM change_log WHERE id = ?", watermark + 1);
+
+        poller.poll();
+        poller.poll();
+
+        assertEquals(comments + 1, versions.comments(1));
+        assertEquals(watermark, poller.watermark());
+
+        jdbc.update("INSERT INTO change_log (id, entity, entity_id, node) VALUES (?, 'COMMENTS', 1, ?)",
+                watermark + 1, OTHER_NODE);
+        poller.poll();
+
+        assertEquals(comments + 2, versions.comments(1));
+        assertEquals(watermark + 2, poller.watermark());
+    }
+
+    @Test
+    void poll_idCommittedAfterGapTimeout_appliedLate() {
+        long watermark = poller.watermark();
+        long comments = versions.comments(1);
+        insertChange("COMMENTS", 1);
+        insertChange("COMMENTS", 1);
+        jdbc.update("DELETE FROM change_log WHERE id = ?", watermark + 1);
+
+        poller.poll();
+        poller.poll(System.nanoTime() + Duration.ofHours(2).toNanos());
+
+        assertEquals(watermark + 2, poller.watermark());
+        assertEquals(comments + 1, versions.comments(1));
+
+        jdbc.update("INSERT INTO change_log (id, entity, entity_id, node) VALUES (?, 'COMMENTS', 1, ?)",
+                watermark + 1, OTHER_NODE);
+        poller.poll(System.nanoTime() + Duration.ofHours(2).toNanos());
+        poller.poll(System.nanoTime() + Duration.ofHours(2).toNanos());
+
+        assertEquals(comments + 2, versions.comments(1));
+    }
+
+    private void insertChange(String entity, long entityId) {
+        jdbc.update("INSERT INTO change_log (entity, entity_id, node) VALUES (?, ?, ?)", entity, entityId, OTHER_NODE);
+    }
+}
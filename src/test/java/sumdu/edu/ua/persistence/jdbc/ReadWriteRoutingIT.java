@@ -0,0 +1,179 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.core.service.ContentVersions;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica; the replica is migrated separately
+ * and holds a book the primary does not, and does not receive the primary's writes. Cache invalidations send
+ * reads to the primary for half a second here, and every pool holds at most three connections.
+ */
+@SpringBootTest(classes = AppInit.class, properties = {
+        "spring.datasource.url=" + ReadWriteRoutingIT.PRIMARY_URL,
+        "app.datasource.replicas=" + ReadWriteRoutingIT.REPLICA_URL,
+        "app.datasource.refill-from-primary=PT0.5S",
+        "spring.datasource.hikari.maximum-pool-size=3"})
+@ActiveProfiles("test")
+class ReadWriteRoutingIT {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final PageRequest FIRST_PAGE = new PageRequest(0, 10, "title", false);
+
+    @Autowired
+    private CatalogRepositoryPort bookRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ContentVersions versions;
+
+    @Autowired
+    private DataSourcePools pools;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(dataSource(REPLICA_URL));
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(dataSource(REPLICA_URL)).load().migrate();
+        new JdbcTemplate(dataSource(REPLICA_URL))
+                .update("INSERT INTO books (title, author, pub_year) VALUES ('Replica copy', 'Author', 2020)");
+    }
+
+    @BeforeEach
+    void setUp() {
+        // the JCache caches are shared by all test contexts in the JVM, which use other databases
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void search_readOnlyTransaction_readsFromReplica() {
+        assertEquals(1, bookRepo.search("Replica copy", FIRST_PAGE).getTotal());
+        assertEquals(0, count(jdbc, "Replica copy"));
+    }
+
+    @Test
+    void add_readWriteTransaction_writesToPrimary() {
+        bookRepo.add("Written to primary", "Author", 2024);
+
+        assertEquals(1, count(jdbc, "Written to primary"));
+        assertEquals(0, count(replicaJdbc, "Written to primary"));
+        assertEquals(0, bookRepo.search("Written to primary", FIRST_PAGE).getTotal());
+    }
+
+    @Test
+    void search_pinnedAfterWrite_readsOwnWriteFromPrimary() {
+        ReadYourWrites.begin(false);
+        bookRepo.add("Read your writes", "Author", 2024);
+        assertTrue(ReadYourWrites.end());
+
+        ReadYourWrites.begin(true);
+        try {
+            assertEquals(1, bookRepo.search("Read your writes", FIRST_PAGE).getTotal());
+        } finally {
+            assertFalse(ReadYourWrites.end());
+        }
+    }
+
+    @Test
+    void search_afterInvalidation_readsFromPrimaryUntilWindowCloses() throws InterruptedException {
+        versions.catalogChanged();
+
+        assertEquals(0, bookRepo.search("Replica copy", FIRST_PAGE).getTotal());
+
+        Thread.sleep(600);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        assertEquals(1, bookRepo.search("Replica copy", FIRST_PAGE).getTotal());
+    }
+
+    @Test
+    void getConnection_replicaUnavailable_nextReplicaThenPrimary() throws SQLException {
+        DataSource missing = dataSource("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(dataSource(PRIMARY_URL),
+                List.of(missing, dataSource(REPLICA_URL)), Duration.ofMinutes(1), new CacheRefillWindow(Duration.ZERO));
+        ReadWriteRoutingDataSource primaryOnly = new ReadWriteRoutingDataSource(dataSource(PRIMARY_URL),
+                List.of(missing), Duration.ofMinutes(1), new CacheRefillWindow(Duration.ZERO));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertEquals("jdbc:h2:mem:routing-replica", url(routing));
+            assertEquals("jdbc:h2:mem:routing-replica", url(routing));
+            assertEquals("jdbc:h2:mem:routing-primary", url(primaryOnly));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void pools_everyPoolHasHikariSettingsAndMetrics() throws SQLException {
+        HikariDataSource replica = pools.getReplicas().get(0);
+        replica.getConnection().close();
+
+        assertEquals(3, pools.getPrimary().getMaximumPoolSize());
+        assertEquals(3, replica.getMaximumPoolSize());
+        assertTrue(replica.isReadOnly());
+        for (String pool : List.of("primary", "replica-0")) {
+            assertNotNull(registry.find("hikaricp.connections.max").tag("pool", pool).gauge(), pool);
+            assertNotNull(registry.find("jdbc.connections.max").tag("name", pool).gauge(), pool);
+        }
+    }
+
+    @Test
+    void close_closesEveryPool() {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setJdbcUrl(PRIMARY_URL);
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(REPLICA_URL);
+
+        new DataSourcePools(primary, List.of(replica)).close();
+
+        assertTrue(primary.isClosed());
+        assertTrue(replica.isClosed());
+    }
+
+    private static int count(JdbcTemplate template, String title) {
+        return template.queryForObject("SELECT COUNT(*) FROM books WHERE title = ?", Integer.class, title);
+    }
+
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+}
@@ -0,0 +1,31 @@
+package sumdu.edu.ua.persistence.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlFingerprintTest {
+
+    @Test
+    void normalize_replacesLiteralsAndCollapsesWhitespace() {
+        String sql = "select b.id,\n       b.title from books b where b.id = 42 and b.title = 'It''s' limit 10";
+
+        assertEquals("select b.id, b.title from books b where b.id = ? and b.title = ? limit ?",
+                SqlFingerprint.normalize(sql));
+    }
+
+    @Test
+    void normalize_keepsDigitsInIdentifiers() {
+        assertEquals("select be1_0.id from books be1_0 where be1_0.id=?",
+                SqlFingerprint.normalize("select be1_0.id from books be1_0 where be1_0.id=?"));
+    }
+
+    @Test
+    void normalize_inListsOfAnyLength_shareFingerprint() {
+        String two = SqlFingerprint.normalize("delete from comments where id in (?, ?)");
+        String five = SqlFingerprint.normalize("delete from comments where id in (1, 2, 3, 4, 5)");
+
+        assertEquals("delete from comments where id in (?+)", two);
+        assertEquals(two, five);
+    }
+}
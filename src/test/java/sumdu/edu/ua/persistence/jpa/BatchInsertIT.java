@@ -0,0 +1,64 @@
+package sumdu.edu.ua.persistence.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.persistence.entity.BookEntity;
+import sumdu.edu.ua.persistence.repository.BookRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sequence ids let Hibernate batch inserts; rows inserted without an id still get one from the sequence.
+ */
+@SpringBootTest(classes = AppInit.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:batchinsert;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class BatchInsertIT {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAll_hundredBooks_insertedInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<BookEntity> books = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            books.add(new BookEntity("Batched " + i, "Author", 2000));
+        }
+        statistics.clear();
+
+        bookRepository.saveAll(books);
+
+        // two batches of 50 inserts, and at most three reads of the sequence
+        assertTrue(statistics.getPrepareStatementCount() <= 5, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(100, jdbc.queryForObject("SELECT COUNT(*) FROM books WHERE title LIKE 'Batched %'", Integer.class));
+    }
+
+    @Test
+    void insertWithoutId_takesIdFromSequence_noClashWithHibernateIds() {
+        BookEntity first = bookRepository.save(new BookEntity("Hibernate", "Author", 2000));
+
+        jdbc.update("INSERT INTO books (title, author, pub_year) VALUES ('Plain JDBC', 'Author', 2000)");
+        BookEntity second = bookRepository.save(new BookEntity("Hibernate again", "Author", 2000));
+
+        long jdbcId = jdbc.queryForObject("SELECT id FROM books WHERE title = 'Plain JDBC'", Long.class);
+        assertNotEquals(first.getId(), jdbcId);
+        assertNotEquals(second.getId(), jdbcId);
+    }
+}
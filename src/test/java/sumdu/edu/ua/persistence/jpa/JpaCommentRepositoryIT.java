@@ -0,0 +1,42 @@
+package sumdu.edu.ua.persistence.jpa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.exception.BookNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Only the foreign key to the book means that the book does not exist; other violations are passed on.
+ */
+@SpringBootTest(classes = AppInit.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:jpacomments;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class JpaCommentRepositoryIT {
+
+    @Autowired
+    private JpaCommentRepository comments;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void add_missingBook_throwsBookNotFound() {
+        BookNotFoundException e = assertThrows(BookNotFoundException.class,
+                () -> comments.add(999_999, "admin@example.com", "Hello"));
+
+        assertEquals("Book not found: 999999", e.getMessage());
+    }
+
+    @Test
+    void add_otherConstraintViolated_throwsDataIntegrityViolation() {
+        long bookId = jdbc.queryForObject("SELECT MIN(id) FROM books", Long.class);
+
+        assertThrows(DataIntegrityViolationException.class, () -> comments.add(bookId, "admin@example.com", null));
+    }
+}
@@ -0,0 +1,92 @@
+package sumdu.edu.ua.persistence.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.persistence.entity.BookEntity;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Effect of the second-level and query caches, measured with Hibernate statistics.
+ */
+@SpringBootTest(classes = AppInit.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:secondlevelcache;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class SecondLevelCacheIT {
+
+    private static final String BOOK_REGION = BookEntity.class.getName();
+
+    @Autowired
+    private JpaBookRepository bookRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        jdbc.update("DELETE FROM comments");
+        jdbc.update("DELETE FROM books");
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < 5; i++) {
+            jdbc.update("INSERT INTO books (title, author, pub_year, created_at) VALUES (?, 'Author', 2000, ?)",
+                    "Cached " + i, now);
+        }
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_secondRead_servedFromBookRegion() {
+        long id = jdbc.queryForObject("SELECT MIN(id) FROM books", Long.class);
+
+        Book first = bookRepo.findById(id);
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        Book second = bookRepo.findById(id);
+
+        assertEquals(first.getTitle(), second.getTitle());
+        assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(BOOK_REGION).getHitCount());
+        // comments and users are not cached
+        assertFalse(Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .anyMatch(region -> region.contains("Comment") || region.contains("User")));
+    }
+
+    @Test
+    void search_repeatedQuery_servedFromQueryCacheUntilBookAdded() {
+        PageRequest request = new PageRequest(0, 10, "title", false);
+
+        bookRepo.search("Cached", request);
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        Page<Book> cached = bookRepo.search("Cached", request);
+
+        assertEquals(5, cached.getTotal());
+        assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+
+        bookRepo.add("Cached 5", "Author", 2001);
+        assertEquals(6, bookRepo.search("Cached", request).getTotal());
+    }
+}
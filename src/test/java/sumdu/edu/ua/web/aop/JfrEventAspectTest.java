@@ -0,0 +1,105 @@
+package sumdu.edu.ua.web.aop;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import sumdu.edu.ua.core.domain.Book;
+import sumdu.edu.ua.core.domain.Page;
+import sumdu.edu.ua.core.domain.PageRequest;
+import sumdu.edu.ua.core.port.CatalogRepositoryPort;
+import sumdu.edu.ua.web.jfr.JfrRecordingAnalyzer;
+import sumdu.edu.ua.web.jfr.RepositoryCallEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledInNativeImage // builds the AOP proxy at runtime
+class JfrEventAspectTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repositoryCalls_areRecordedWithArgumentsAndRows() throws Exception {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new StubCatalog());
+        factory.addAspect(new JfrEventAspect());
+        CatalogRepositoryPort catalog = factory.getProxy();
+
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryCallEvent.NAME).withoutThreshold();
+            recording.start();
+            catalog.search("clean", new PageRequest(0, 10));
+            catalog.findById(42);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(RepositoryCallEvent.NAME))
+                .toList();
+
+        assertEquals(2, events.size());
+        RecordedEvent search = events.get(0);
+        assertEquals("StubCatalog.search", search.getString("operation"));
+        assertEquals(5, search.getInt("queryLength"));
+        assertEquals(2, search.getInt("rows"));
+        assertEquals(-1, search.getLong("bookId"));
+
+        RecordedEvent findById = events.get(1);
+        assertEquals(42, findById.getLong("bookId"));
+        assertEquals(1, findById.getInt("rows"));
+        assertFalse(findById.getBoolean("failed"));
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        JfrRecordingAnalyzer.analyze(file, 10, new PrintStream(report, true, StandardCharsets.UTF_8));
+        assertTrue(report.toString(StandardCharsets.UTF_8).contains("[repository] StubCatalog.search"));
+    }
+
+    private static class StubCatalog implements CatalogRepositoryPort {
+        @Override
+        public Page<Book> search(String query, PageRequest request) {
+            return new Page<>(List.of(new Book(1, "a", "b", 2000), new Book(2, "c", "d", 2001)), request, 2);
+        }
+
+        @Override
+        public Book findById(long id) {
+            return new Book(id, "a", "b", 2000);
+        }
+
+        @Override
+        public Book add(String title, String author, int pubYear) {
+            return null;
+        }
+
+        @Override
+        public List<Book> addAll(List<Book> books) {
+            return List.of();
+        }
+
+        @Override
+        public Page<Book> findNewestAddedBetween(Instant from, Instant to, int limit) {
+            return new Page<>(List.of(), new PageRequest(0, limit), 0);
+        }
+
+        @Override
+        public List<Book> findRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<Book> findRecentAfter(long afterId, int limit) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package sumdu.edu.ua.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import sumdu.edu.ua.AppInit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports run in chunks of two rows here, so every import reports progress before the final report.
+ */
+@SpringBootTest(classes = AppInit.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookimport;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.book-import.chunk-size=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookImportIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_csvWithDuplicateAndInvalidRows_importsTheRest() throws Exception {
+        String csv = """
+                title,author,pub_year
+                Dune,Frank Herbert,1965
+                "Foundation, Book ""One""\",Isaac Asimov,1951
+                 dune , frank  HERBERT,1965
+                ,No Title,2000
+                Solaris,Stanislaw Lem,soon
+                """;
+
+        List<JsonNode> reports = importBody("text/csv", csv);
+
+        JsonNode last = reports.get(reports.size() - 1);
+        assertEquals(3, reports.size());
+        assertFalse(reports.get(0).get("done").asBoolean());
+        assertTrue(last.get("done").asBoolean());
+        assertEquals(5, last.get("read").asLong());
+        assertEquals(2, last.get("imported").asLong());
+        assertEquals(1, last.get("duplicates").asLong());
+        assertEquals(2, last.get("invalid").asLong());
+        assertEquals(5, last.get("errors").get(0).get("line").asLong());
+        assertEquals("title is required", last.get("errors").get(0).get("message").asText());
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM books WHERE title = 'Foundation, Book \"One\"'", Integer.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM books WHERE title = 'Dune'", Integer.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_ndjson_importsValidLines() throws Exception {
+        String ndjson = """
+                {"title":"Hyperion","author":"Dan Simmons","pubYear":1989}
+                {"title":"Ubik","author":"Philip K. Dick","pub_year":"1969"}
+                {"title":"Broken",
+                """;
+
+        List<JsonNode> reports = importBody("application/x-ndjson", ndjson);
+
+        JsonNode last = reports.get(reports.size() - 1);
+        assertEquals(2, last.get("imported").asLong());
+        assertEquals(1, last.get("invalid").asLong());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM books WHERE title = 'Ubik'", Integer.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_csvWithoutYearColumn_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/books/import")
+                        .contentType("text/csv")
+                        .content("title,author\nDune,Frank Herbert\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_unknownCharset_rejectedAsClientError() throws Exception {
+        // the consumes match already answers 415 for it; the controller answers 400 if it ever gets that far
+        mockMvc.perform(post("/api/books/import")
+                        .contentType("text/csv;charset=no-such-charset")
+                        .content("title,author,pub_year\nDune,Frank Herbert,1965\n"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    private List<JsonNode> importBody(String contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/api/books/import")
+                        .contentType(contentType)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return response.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException(line, e);
+            }
+        }).toList();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 import sumdu.edu.ua.AppInit;
 import sumdu.edu.ua.core.domain.Book;
@@ -32,6 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(classes = AppInit.class)
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+@DisabledInAotMode // @MockBean replaces beans at runtime, which AOT-processed contexts cannot do
 class CommentDeleteExceptionIT {
 
     @Autowired
@@ -0,0 +1,315 @@
+package sumdu.edu.ua.web.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import sumdu.edu.ua.AppInit;
+import sumdu.edu.ua.core.service.ContentVersions;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement and entity-load budgets for every endpoint of the book and comment controllers.
+ *
+ * Each test runs against 10 and 1000 rows: N books, N users, N comments on {@link #hotBookId}
+ * and N comments by {@link #activeUserId}. Statement budgets are the same for both sizes, so an
+ * N+1 query fails the 1000-row run. Entity budgets are a fixed allowance plus an allowance per row
+ * the endpoint lists, which is bounded by its page size, so an extra entity per row fails both runs.
+ */
+@SpringBootTest(classes = AppInit.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountIT {
+
+    private static final String READER = "reader0@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ContentVersions versions;
+
+    private long hotBookId;
+    private long activeUserId;
+    private long recentCommentId;
+    private int rows;
+
+    /** Comments per page of the book page. */
+    private static final int BOOK_PAGE_COMMENTS = 20;
+    /** Comments returned with a book by GET /api/books/{id}. */
+    private static final int API_BOOK_COMMENTS = 1000;
+
+    // --- BooksController
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void root_redirectsWithoutQueries(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(get("/").with(user(READER).roles("USER")), status().is3xxRedirection(),
+                budget(0, 0, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void booksPage_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(get("/books").param("q", "book").param("sort", "title").with(user(READER).roles("USER")),
+                status().isOk(), budget(3, 20, 0));
+    }
+
+    @Test
+    void booksPage_cachedBookList_onlyQueriesSubscription() throws Exception {
+        seed(10);
+        mockMvc.perform(get("/books").param("q", "book").with(user(READER).roles("USER"))).andExpect(status().isOk());
+
+        assertWithinBudget(get("/books").param("q", "book").with(user(READER).roles("USER")),
+                status().isOk(), budget(1, 0, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void addBookForm_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(get("/books/add").with(user("admin@example.com").roles("ADMIN")),
+                status().isOk(), budget(0, 0, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void addBook_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(post("/books/add").param("title", "New").param("author", "Author").param("pubYear", "2020")
+                        .with(user("admin@example.com").roles("ADMIN")).with(csrf()),
+                status().is3xxRedirection(), budget(1, 0, 0));
+    }
+
+    // --- CommentsController
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void bookCommentsPage_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        // the book is loaded once by its own read and once with the comments, which run concurrently;
+        // each listed comment loads the comment and its user
+        assertWithinBudget(get("/books/" + hotBookId).with(user(READER).roles("USER")),
+                status().isOk(), budget(3, 3, 2), Math.min(rows, BOOK_PAGE_COMMENTS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void addCommentForm_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(post("/books/" + hotBookId).param("text", "Nice").with(user(READER).roles("USER")).with(csrf()),
+                status().is3xxRedirection(), budget(3, 2, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void deleteCommentForm_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(post("/books/" + hotBookId).param("_method", "delete")
+                        .param("commentId", Long.toString(recentCommentId))
+                        .param("createdAt", Instant.now().toString())
+                        .with(user("admin@example.com").roles("ADMIN")).with(csrf()),
+                status().is3xxRedirection(), budget(2, 1, 0));
+    }
+
+    // --- BooksApiController
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void apiBooks_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(get("/api/books").param("q", "book").param("sort", "title").with(user(READER).roles("USER")),
+                status().isOk(), budget(3, 20, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void apiBookWithComments_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(get("/api/books/" + hotBookId).with(user(READER).roles("USER")),
+                status().isOk(), budget(3, 3, 2), Math.min(rows, API_BOOK_COMMENTS));
+    }
+
+    @Test
+    void apiBookWithComments_matchingETag_notModifiedWithoutQueries() throws Exception {
+        seed(10);
+        String etag = mockMvc.perform(get("/api/books/" + hotBookId).with(user(READER).roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, public"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertWithinBudget(get("/api/books/" + hotBookId).header("If-None-Match", etag).with(user(READER).roles("USER")),
+                status().isNotModified(), budget(0, 0, 0));
+
+        mockMvc.perform(post("/comments").contentType(APPLICATION_JSON)
+                        .content("{\"bookId\":" + hotBookId + ",\"author\":\"" + READER + "\",\"text\":\"Nice\"}")
+                        .with(user(READER).roles("USER")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/books/" + hotBookId).header("If-None-Match", etag).with(user(READER).roles("USER")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void apiBookWithComments_missingBook_notFoundWithoutETag() throws Exception {
+        seed(10);
+        long missingId = jdbc.queryForObject("SELECT MAX(id) FROM books", Long.class) + 1_000_000;
+
+        mockMvc.perform(get("/api/books/" + missingId).with(user(READER).roles("USER")))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+        mockMvc.perform(get("/books/" + missingId).with(user(READER).roles("USER")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void apiCreateBook_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(post("/api/books").contentType(APPLICATION_JSON)
+                        .content("{\"title\":\"New\",\"author\":\"Author\",\"pubYear\":2020}")
+                        .with(user("admin@example.com").roles("ADMIN")),
+                // the insert, and a read of the id sequence once per 50 ids
+                status().isCreated(), budget(2, 0, 0));
+    }
+
+    // --- CommentsApiController
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void apiAddComment_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(post("/comments").contentType(APPLICATION_JSON)
+                        .content("{\"bookId\":" + hotBookId + ",\"author\":\"" + READER + "\",\"text\":\"Nice\"}")
+                        .with(user(READER).roles("USER")),
+                // includes a read of the id sequence once per 50 ids
+                status().isCreated(), budget(4, 2, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void apiDeleteComment_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        assertWithinBudget(delete("/comments").param("bookId", Long.toString(hotBookId))
+                        .param("commentId", Long.toString(recentCommentId))
+                        .param("createdAt", Instant.now().toString())
+                        .with(user("admin@example.com").roles("ADMIN")),
+                status().isOk(), budget(2, 1, 0));
+    }
+
+    // --- UserCommentsController
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000})
+    void userCommentsPage_staysWithinQueryBudget(int rows) throws Exception {
+        seed(rows);
+        // all comments of the user are listed, each with its book; the hot book is fetched by two rows and,
+        // as a cached entity, counts as loaded once per row
+        assertWithinBudget(get("/users/" + activeUserId + "/comments").with(user(READER).roles("USER")),
+                status().isOk(), budget(2, 3, 2), rows);
+    }
+
+    /**
+     * @param statements maximum SQL statements, independent of data size
+     * @param entities maximum entities loaded besides the listed rows, independent of data size
+     * @param entitiesPerRow maximum entities loaded per row the endpoint lists
+     */
+    private static Budget budget(int statements, int entities, int entitiesPerRow) {
+        return new Budget(statements, entities, entitiesPerRow);
+    }
+
+    private void assertWithinBudget(RequestBuilder request, ResultMatcher expectedStatus, Budget budget) throws Exception {
+        assertWithinBudget(request, expectedStatus, budget, 0);
+    }
+
+    /**
+     * @param listedRows rows the endpoint lists for the seeded data
+     */
+    private void assertWithinBudget(RequestBuilder request, ResultMatcher expectedStatus, Budget budget,
+                                    int listedRows) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(expectedStatus);
+
+        long statements = statistics.getPrepareStatementCount();
+        long entities = statistics.getEntityLoadCount();
+        long maxEntities = budget.entities + (long) budget.entitiesPerRow * listedRows;
+        assertTrue(statements <= budget.statements,
+                "Expected at most " + budget.statements + " statements with " + rows + " rows, was " + statements);
+        assertTrue(entities <= maxEntities,
+                "Expected at most " + maxEntities + " entity loads with " + rows + " rows, was " + entities);
+    }
+
+    private void seed(int rows) {
+        this.rows = rows;
+        jdbc.update("DELETE FROM new_book_subscriptions");
+        jdbc.update("DELETE FROM comments");
+        jdbc.update("DELETE FROM books");
+        jdbc.update("DELETE FROM users WHERE email <> 'admin@example.com'");
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> books = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            books.add(new Object[]{"Book " + i, "Author " + i % 7, 1950 + i % 70, now});
+            users.add(new Object[]{"reader" + i + "@example.com"});
+        }
+        jdbc.batchUpdate("INSERT INTO books (title, author, pub_year, created_at) VALUES (?, ?, ?, ?)", books);
+        jdbc.batchUpdate("INSERT INTO users (email, password, role, enabled) VALUES (?, 'x', 'USER', TRUE)", users);
+
+        List<Long> bookIds = jdbc.queryForList("SELECT id FROM books ORDER BY id", Long.class);
+        List<Long> userIds = jdbc.queryForList("SELECT id FROM users WHERE email LIKE 'reader%' ORDER BY id", Long.class);
+        hotBookId = bookIds.get(0);
+        activeUserId = userIds.get(0);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            // N comments on the hot book from different users, N comments by the active user on different books
+            comments.add(new Object[]{hotBookId, userIds.get(i), "Comment " + i, now});
+            comments.add(new Object[]{bookIds.get(i), activeUserId, "Review " + i, now});
+        }
+        jdbc.batchUpdate("INSERT INTO comments (book_id, user_id, text, created_at) VALUES (?, ?, ?, ?)", comments);
+        recentCommentId = jdbc.queryForObject("SELECT MAX(id) FROM comments WHERE book_id = ?", Long.class, hotBookId);
+        // rows written with JDBC bypass the services and Hibernate, so nothing cached for the previous seed may match
+        versions.catalogChanged();
+        versions.commentsChanged(hotBookId);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private record Budget(int statements, int entities, int entitiesPerRow) {
+    }
+}
@@ -0,0 +1,84 @@
+package sumdu.edu.ua.web.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_atLimit_rejectsUntilReleased() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.onIgnore();
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void onSample_steadyLatencyUnderLoad_growsToMaxLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 50);
+
+        for (int i = 0; i < 200; i++) {
+            limit.tryAcquire();
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    void onSample_latencyRise_shrinksLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 4, 50);
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.onSample(200 * MS, limit.getLimit());
+        }
+
+        assertEquals(50, before);
+        assertTrue(limit.getLimit() <= 5, () -> "limit " + limit.getLimit());
+    }
+
+    @Test
+    void onSample_sustainedOverload_reachesMinLimitOfOne() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 16);
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.onSample(500 * MS, limit.getLimit());
+        }
+
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    void onSample_lightLoad_keepsLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.onSample(5 * MS, 1);
+        }
+
+        assertEquals(20, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+}
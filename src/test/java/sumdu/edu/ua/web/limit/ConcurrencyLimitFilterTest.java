@@ -0,0 +1,105 @@
+package sumdu.edu.ua.web.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(registry,
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            new MockEnvironment()
+                    .withProperty("app.concurrency-limit.comment-write.initial-limit", "1")
+                    .withProperty("app.concurrency-limit.comment-write.min-limit", "1")
+                    .withProperty("app.concurrency-limit.comment-write.max-limit", "1"),
+            503, 2);
+
+    @Test
+    void doFilter_overGroupLimit_rejectsWithoutCallingChain() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/comments"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            await(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/books/1"), rejected, chain);
+
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), read, new MockFilterChain());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("comment-write"));
+        assertNull(chain.getRequest());
+        assertEquals(200, read.getStatus());
+        assertEquals(1, registry.get("app.concurrency.requests")
+                .tag("group", "comment-write").tag("outcome", "rejected").counter().count());
+        assertEquals(0, filter.limit(EndpointGroup.COMMENT_WRITE).getInFlight());
+    }
+
+    @Test
+    void release_longRunningRequest_freesSlotForNextRequest() throws Exception {
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        MockFilterChain nextChain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/comments"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    ConcurrencyLimitFilter.release((HttpServletRequest) request);
+                    ConcurrencyLimitFilter.release((HttpServletRequest) request);
+                    filter.doFilter(new MockHttpServletRequest("POST", "/books/1"), next, nextChain);
+                });
+
+        assertEquals(200, next.getStatus());
+        assertNotNull(nextChain.getRequest());
+        assertEquals(0, filter.limit(EndpointGroup.COMMENT_WRITE).getInFlight());
+    }
+
+    @Test
+    void of_mapsRequestsToGroups() {
+        assertEquals(EndpointGroup.CATALOG_READ, EndpointGroup.of("GET", "/api/books/7"));
+        assertEquals(EndpointGroup.CATALOG_READ, EndpointGroup.of("GET", "/users/3/comments"));
+        assertEquals(EndpointGroup.COMMENT_WRITE, EndpointGroup.of("POST", "/books/7"));
+        assertEquals(EndpointGroup.COMMENT_WRITE, EndpointGroup.of("DELETE", "/comments"));
+        assertEquals(EndpointGroup.AUTH, EndpointGroup.of("POST", "/login"));
+        assertEquals(EndpointGroup.ADMIN, EndpointGroup.of("POST", "/api/books"));
+        assertEquals(EndpointGroup.ADMIN, EndpointGroup.of("GET", "/api/admin/traces"));
+        assertNull(EndpointGroup.of("GET", "/actuator/health"));
+        assertNull(EndpointGroup.of("GET", "/css/style.css"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
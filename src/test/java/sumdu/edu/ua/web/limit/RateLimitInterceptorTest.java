@@ -0,0 +1,72 @@
+package sumdu.edu.ua.web.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(registry,
+            new ObjectMapper().registerModule(new JavaTimeModule()), true, "POST /comments=60/2", 1, 1000);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void preHandle_emptyBucket_answers429WithRetryAfterAndRateLimitHeaders() throws Exception {
+        MockHttpServletResponse first = post("10.0.0.1");
+        MockHttpServletResponse second = post("10.0.0.1");
+        MockHttpServletResponse rejected = post("10.0.0.1");
+
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals("1", first.getHeader("RateLimit-Remaining"));
+        assertEquals("0", second.getHeader("RateLimit-Remaining"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("2", rejected.getHeader("RateLimit-Limit"));
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+        assertEquals("2", rejected.getHeader("RateLimit-Reset"));
+        assertTrue(rejected.getContentAsString().contains("Rate limit of POST /comments exceeded"));
+        assertEquals(1, registry.get("app.rate-limit.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void preHandle_ipBucketEmpty_keepsUserTokens() throws Exception {
+        post("10.0.0.1");
+        post("10.0.0.1");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "ann@example.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        assertEquals(429, post("10.0.0.1").getStatus());
+        assertEquals(429, post("10.0.0.1").getStatus());
+        MockHttpServletResponse otherAddress = post("10.0.0.2");
+
+        assertEquals(200, otherAddress.getStatus());
+        assertEquals("1", otherAddress.getHeader("RateLimit-Remaining"));
+        assertEquals(200, post("10.0.0.2").getStatus());
+    }
+
+    private MockHttpServletResponse post(String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/comments");
+        request.setRemoteAddr(remoteAddr);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/comments");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        return response;
+    }
+}
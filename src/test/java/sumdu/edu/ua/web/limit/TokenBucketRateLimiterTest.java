@@ -0,0 +1,86 @@
+package sumdu.edu.ua.web.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_afterBurst_rejectsUntilTokenRefills() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000);
+        RateLimitRule rule = new RateLimitRule(60, 3);
+        long now = System.nanoTime();
+
+        assertEquals(2, limiter.tryConsume("a", rule, now).remaining());
+        assertEquals(1, limiter.tryConsume("a", rule, now).remaining());
+        assertEquals(0, limiter.tryConsume("a", rule, now).remaining());
+        TokenBucketRateLimiter.Decision rejected = limiter.tryConsume("a", rule, now);
+
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos());
+        assertEquals(3 * SECOND, rejected.resetNanos());
+        assertTrue(limiter.tryConsume("b", rule, now).allowed());
+        assertTrue(limiter.tryConsume("a", rule, now + SECOND).allowed());
+        assertFalse(limiter.tryConsume("a", rule, now + SECOND).allowed());
+    }
+
+    @Test
+    void tryConsumeAll_oneBucketEmpty_takesNoToken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000);
+        RateLimitRule rule = new RateLimitRule(60, 2);
+        long now = System.nanoTime();
+        limiter.tryConsume("ip", rule, now);
+        limiter.tryConsume("ip", rule, now);
+
+        TokenBucketRateLimiter.Decision rejected =
+                limiter.tryConsumeAll(List.of("user", "ip"), List.of(rule, rule), now);
+        TokenBucketRateLimiter.Decision allowed =
+                limiter.tryConsumeAll(List.of("user", "other-ip"), List.of(rule, rule), now);
+
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos());
+        assertTrue(allowed.allowed());
+        assertEquals(1, allowed.remaining());
+    }
+
+    @Test
+    void tryConsume_fullStripe_evictsRefilledBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(16 * 4);
+        RateLimitRule rule = new RateLimitRule(60, 1);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryConsume("client-" + i, rule, now + i * 2 * SECOND);
+        }
+
+        assertTrue(limiter.size() <= 16 * 4);
+        assertEquals(0, limiter.untrackedCount());
+    }
+
+    @Test
+    void tryConsume_stripeFullOfActiveBuckets_allowsWithoutTracking() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(16);
+        RateLimitRule rule = new RateLimitRule(1, 1);
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.tryConsume("client-" + i, rule, now).allowed());
+        }
+
+        assertTrue(limiter.size() <= 16);
+        assertTrue(limiter.untrackedCount() > 0);
+    }
+
+    @Test
+    void parseRoutes_readsMethodPatternRateAndBurst() {
+        Map<String, RateLimitRule> rules = RateLimitRule.parseRoutes("POST /books/{bookId}=30/10,  DELETE  /comments=60/20");
+
+        assertEquals(Map.of("POST /books/{bookId}", new RateLimitRule(30, 10),
+                "DELETE /comments", new RateLimitRule(60, 20)), rules);
+    }
+}
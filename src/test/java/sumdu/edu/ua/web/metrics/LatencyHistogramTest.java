@@ -0,0 +1,63 @@
+package sumdu.edu.ua.web.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void indexOf_isContinuousAndMonotonic() {
+        int previous = LatencyHistogram.indexOf(0);
+        for (long value = 1; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "gap at value " + value);
+            assertTrue(LatencyHistogram.highestValueIn(index) >= value);
+            previous = index;
+        }
+    }
+
+    @Test
+    void valueAtPercentile_isWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_000, snapshot.valueAtPercentile(50), 500_000 * 0.035);
+        assertEquals(990_000, snapshot.valueAtPercentile(99), 990_000 * 0.035);
+        assertEquals(500_500, snapshot.getMeanNanos(), 0.001);
+    }
+
+    @Test
+    void valueAtPercentile_withNoValues_returnsZero() {
+        assertEquals(0, new LatencyHistogram().snapshot().valueAtPercentile(99));
+    }
+
+    @Test
+    void record_fromManyThreads_countsEveryValue() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.snapshot().getCount());
+    }
+}
@@ -0,0 +1,28 @@
+package sumdu.edu.ua.web.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMethodMetricsTest {
+
+    @Test
+    void meters_readInOneScrape_shareOneSnapshot() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServiceMethodMetrics metrics = new ServiceMethodMetrics(registry);
+        LatencyHistogram histogram = metrics.histogram("BookService.findById");
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+
+        double median = registry.get("app.service.method.latency").tag("quantile", "0.5").timeGauge()
+                .value(TimeUnit.MILLISECONDS);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        double calls = registry.get("app.service.method.calls").functionCounter().count();
+
+        assertEquals(2, median, 0.1);
+        // the counter is read from the snapshot the gauge took, not from a new copy of the buckets
+        assertEquals(1, calls);
+    }
+}
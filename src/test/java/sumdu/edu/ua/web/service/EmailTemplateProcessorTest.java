@@ -0,0 +1,50 @@
+package sumdu.edu.ua.web.service;
+
+import org.junit.jupiter.api.Test;
+import sumdu.edu.ua.config.EmailFreemarkerConfig;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The processor is created on the first email, so a broken template would otherwise only show up then.
+ * Creating it here parses every template in the build.
+ */
+class EmailTemplateProcessorTest {
+
+    private final EmailTemplateProcessor processor =
+            new EmailTemplateProcessor(new EmailFreemarkerConfig().freemarkerEmailConfig());
+
+    @Test
+    void process_everyTemplate_rendersItsModel() {
+        Map<EmailModel, String> expected = Map.of(
+                new ConfirmationEmailModel("Ann", "http://localhost/confirm?code=c0de", "c0de"), "c0de",
+                new NewBookEmailModel("Dune", "Frank Herbert", 1965, "2024-05-01"), "Dune",
+                new NewBooksDigestEmailModel("New books", "Added this week:", "Unsubscribe",
+                        List.of(new NewBooksDigestEmailModel.Entry("Solaris", "Stanislaw Lem", 1961))), "Solaris");
+
+        Set<EmailTemplate> rendered = EnumSet.noneOf(EmailTemplate.class);
+        expected.forEach((model, text) -> {
+            String html = processor.process(model);
+            assertTrue(html.contains(text), model.template() + ": " + html);
+            rendered.add(model.template());
+        });
+        assertEquals(EnumSet.allOf(EmailTemplate.class), rendered);
+    }
+
+    @Test
+    void process_digestWithMarkupInTitle_escapesIt() {
+        String html = processor.process(new NewBooksDigestEmailModel("New books", "Added this week:", "Unsubscribe",
+                List.of(new NewBooksDigestEmailModel.Entry("<script>alert(1)</script>", "Smith & Sons", 2024))));
+
+        assertFalse(html.contains("<script>"), html);
+        assertTrue(html.contains("&lt;script&gt;alert(1)&lt;/script&gt;"), html);
+        assertTrue(html.contains("Smith &amp; Sons"), html);
+    }
+}
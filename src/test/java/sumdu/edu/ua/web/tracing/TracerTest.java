@@ -0,0 +1,51 @@
+package sumdu.edu.ua.web.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    @Test
+    void startSpan_withoutSampledTrace_returnsNull() {
+        Tracer tracer = new Tracer(0, 16);
+
+        assertNull(tracer.startTrace("GET", null));
+        assertNull(tracer.startSpan("BookService.findById", Span.Kind.INTERNAL));
+    }
+
+    @Test
+    void startTrace_withSampledTraceparent_continuesTrace() {
+        Tracer tracer = new Tracer(0, 16);
+
+        Span root = tracer.startTrace("GET", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        Span child = tracer.startSpan("BookService.findById", Span.Kind.INTERNAL);
+        tracer.end(child);
+        tracer.end(root);
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", root.getTraceId());
+        assertEquals("00f067aa0ba902b7", root.getParentSpanId());
+        assertEquals(root.getSpanId(), child.getParentSpanId());
+        assertEquals(root.getTraceId(), child.getTraceId());
+        assertNull(tracer.current());
+
+        List<Span> spans = tracer.buffer().read(0, tracer.buffer().position());
+        assertEquals(List.of(child, root), spans);
+    }
+
+    @Test
+    void read_afterOverflow_returnsOnlyRetainedSpans() {
+        Tracer tracer = new Tracer(1, 4);
+        for (int i = 0; i < 10; i++) {
+            tracer.end(tracer.startTrace("GET " + i, null));
+        }
+
+        List<Span> spans = tracer.buffer().read(0, tracer.buffer().position());
+
+        assertEquals(4, spans.size());
+        assertEquals("GET 6", spans.get(0).getName());
+        assertEquals("GET 9", spans.get(3).getName());
+    }
+}